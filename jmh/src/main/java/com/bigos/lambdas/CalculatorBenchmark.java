@@ -0,0 +1,142 @@
+package com.bigos.lambdas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Compares evaluating a BinaryCalculator pair by pair with Lambdas.calculate against the bulk
+ * BinaryCalculators.calculateAll (sequential and parallel), and a chain of lambdas composed with andThen
+ * against the same chain compiled by FusedExpression and written by hand as a single lambda, i.e.:
+ * java -jar jmh/target/benchmarks.jar CalculatorBenchmark -p size=1000000
+ *
+ * Before measuring, Lambdas.calculate is called with several different calculators, so (as in a real
+ * application) its call site is megamorphic.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class CalculatorBenchmark {
+
+    // (a * b + 1) -> sqrt -> * 2 -> min with 1, composed step by step, fused into one method handle
+    // and written by hand
+    private static final DoubleUnaryOperator AFTER_MULTIPLY = ((DoubleUnaryOperator) x -> x + 1)
+            .andThen(Math::sqrt)
+            .andThen(x -> x * 2)
+            .andThen(x -> Math.min(x, 1));
+    private static final BinaryCalculator COMPOSED =
+            (a, b) -> AFTER_MULTIPLY.applyAsDouble(BinaryCalculators.MULTIPLY.calculate(a, b));
+    private static final BinaryCalculator FUSED = FusedExpression.of(BinaryCalculators.MULTIPLY)
+            .andThen(x -> x + 1)
+            .andThen(Math::sqrt)
+            .andThen(x -> x * 2)
+            .andThen(BinaryCalculators.MIN, 1)
+            .toBinaryCalculator();
+    private static final BinaryCalculator HAND_WRITTEN = (a, b) -> Math.min(Math.sqrt(a * b + 1) * 2, 1);
+
+    @Benchmark
+    public double[] calculatePerPairAdd(Input in) {
+        for (int i = 0; i < in.out.length; i++) {
+            in.out[i] = Lambdas.calculate(BinaryCalculators.ADD, in.a[i], in.b[i]);
+        }
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllAdd(Input in) {
+        BinaryCalculators.calculateAll(BinaryCalculators.ADD, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllParallelAdd(Input in) {
+        BinaryCalculators.calculateAllParallel(BinaryCalculators.ADD, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculatePerPairCustom(Input in) {
+        for (int i = 0; i < in.out.length; i++) {
+            in.out[i] = Lambdas.calculate(in.custom, in.a[i], in.b[i]);
+        }
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllCustom(Input in) {
+        BinaryCalculators.calculateAll(in.custom, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllParallelCustom(Input in) {
+        BinaryCalculators.calculateAllParallel(in.custom, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllAndThenChain(Input in) {
+        BinaryCalculators.calculateAll(COMPOSED, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllFusedChain(Input in) {
+        BinaryCalculators.calculateAll(FUSED, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @Benchmark
+    public double[] calculateAllHandWrittenChain(Input in) {
+        BinaryCalculators.calculateAll(HAND_WRITTEN, in.a, in.b, in.out);
+        return in.out;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Input {
+
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        double[] a;
+        double[] b;
+        double[] out;
+        final BinaryCalculator custom = (x, y) -> x * x + y;
+
+        @Setup
+        public void setUp(Blackhole blackhole) {
+            // pollute the profile of Lambdas.calculate
+            BinaryCalculator[] calculators = {BinaryCalculators.ADD, BinaryCalculators.MULTIPLY,
+                    BinaryCalculators.MIN, BinaryCalculators.MAX, custom};
+            for (int i = 0; i < 1_000_000; i++) {
+                blackhole.consume(Lambdas.calculate(calculators[i % calculators.length], i, 1));
+            }
+
+            Random random = new Random(42);
+            a = new double[size];
+            b = new double[size];
+            out = new double[size];
+            for (int i = 0; i < size; i++) {
+                a[i] = random.nextDouble();
+                b[i] = random.nextDouble();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bigos.lambdas;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Runs many blocking tasks (each sleeps for a while, like a task waiting for I/O) on virtual threads and on
+ * a fixed pool of platform threads. Every measurement is a single shot of all the tasks; besides the time
+ * it reports the peak number of live threads, and -prof gc adds the memory allocated, i.e.:
+ * java -jar jmh/target/benchmarks.jar TaskBenchmark -prof gc
+ * java -jar jmh/target/benchmarks.jar TaskBenchmark -p tasks=1000000 -p sleepMillis=10 -p platformThreads=200
+ *
+ * The virtual thread runs need Java 21+, on older JVMs they fail in the setup (the fallback pool of
+ * TaskRunner.virtual() would start a platform thread per task) and the platform runs go on.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TaskBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int tasks;
+
+    @Param({"virtual", "platform"})
+    public String mode;
+
+    @Param("10")
+    public long sleepMillis;
+
+    @Param("200")
+    public int platformThreads;
+
+    private TaskRunner runner;
+
+    @Setup
+    public void setUp() {
+        if ("virtual".equals(mode)) {
+            runner = TaskRunner.virtual();
+            if (!runner.isVirtual()) {
+                runner.close();
+                throw new IllegalStateException("virtual threads are not available on Java "
+                        + System.getProperty("java.version"));
+            }
+        } else {
+            runner = TaskRunner.platform(platformThreads);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runner.close();
+    }
+
+    @Benchmark
+    public long blockingTasks(Threads threads) throws InterruptedException, ExecutionException {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        AtomicLong done = new AtomicLong();
+        try (TaskRunner.Scope scope = runner.open()) {
+            for (int i = 0; i < tasks; i++) {
+                scope.fork(() -> {
+                    try {
+                        Thread.sleep(sleepMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.incrementAndGet();
+                });
+            }
+            scope.join();
+        }
+        threads.peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+        return done.get();
+    }
+
+    /**
+     * Peak number of live (platform) threads during the shot, reported next to the time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Threads {
+
+        public long peakThreads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakThreads = 0;
+        }
+    }
+}
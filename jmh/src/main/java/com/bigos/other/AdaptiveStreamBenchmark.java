@@ -0,0 +1,93 @@
+package com.bigos.other;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Small or cheap parallel pipelines: plain parallel streams against AdaptiveStreams sources, which split only
+ * while a piece is worth a fork/join task, i.e.:
+ * java -jar jmh/target/benchmarks.jar AdaptiveStreamBenchmark
+ *
+ * The speedup of the large sizes depends on the number of cores, run it on the machine you care about.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class AdaptiveStreamBenchmark {
+
+    @Benchmark
+    public long mapCountParallel(Input in) {
+        return in.strings
+                .parallelStream()
+                .map(String::toUpperCase)
+                .filter(a -> a.startsWith("C"))
+                .count();
+    }
+
+    @Benchmark
+    public long mapCountAdaptive(Input in) {
+        return AdaptiveStreams
+                .parallel(in.strings, 20)
+                .map(String::toUpperCase)
+                .filter(a -> a.startsWith("C"))
+                .count();
+    }
+
+    // mapToInt(String::length).sum(), not count() - count() of a sized stream skips mapToObj
+
+    @Benchmark
+    public int rangeMapToObjParallel(Input in) {
+        return IntStream
+                .range(0, in.size)
+                .parallel()
+                .mapToObj(i -> "a" + i)
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int rangeMapToObjAdaptive(Input in) {
+        return AdaptiveStreams
+                .parallelRange(0, in.size, 30)
+                .mapToObj(i -> "a" + i)
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Input {
+
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        List<String> strings;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            strings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                strings.add((char) ('a' + random.nextInt(4)) + Integer.toString(random.nextInt(10)));
+            }
+        }
+    }
+}
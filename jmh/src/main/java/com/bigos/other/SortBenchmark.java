@@ -0,0 +1,127 @@
+package com.bigos.other;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Finds the crossover points used by PrimitiveSort: Arrays.sort, Arrays.parallelSort and the radix sort
+ * on random ints of the full int range and on ages (0 - 99), i.e.:
+ * java -jar jmh/target/benchmarks.jar SortBenchmark -p size=1000,100000
+ *
+ * Every benchmark sorts a fresh copy of the input, so the copy is a part of every result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class SortBenchmark {
+
+    @Benchmark
+    public int[] arraysSortFullRange(Input in) {
+        int[] copy = in.full.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSortFullRange(Input in) {
+        int[] copy = in.full.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] radixSortFullRange(Input in) {
+        int[] copy = in.full.clone();
+        PrimitiveSort.radixSort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] primitiveSortFullRange(Input in) {
+        int[] copy = in.full.clone();
+        PrimitiveSort.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] arraysSortAges(Input in) {
+        int[] copy = in.ages.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSortAges(Input in) {
+        int[] copy = in.ages.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] radixSortAges(Input in) {
+        int[] copy = in.ages.clone();
+        PrimitiveSort.radixSort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] primitiveSortAges(Input in) {
+        int[] copy = in.ages.clone();
+        PrimitiveSort.sort(copy);
+        return copy;
+    }
+
+    // MethodReference: sorted list of boxed Integers against a sorted IntList
+
+    @Benchmark
+    public List<Integer> sortAndBoxedList(Input in) {
+        int[] array = in.full.clone();
+        Arrays.sort(array);
+        return Arrays.stream(array).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntList sortedList(Input in) {
+        return PrimitiveSort.sortedList(in.full);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Input {
+
+        @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+        public int size;
+
+        int[] full;
+        int[] ages;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            full = new int[size];
+            ages = new int[size];
+            for (int i = 0; i < size; i++) {
+                full[i] = random.nextInt();
+                ages[i] = random.nextInt(100);
+            }
+        }
+    }
+}
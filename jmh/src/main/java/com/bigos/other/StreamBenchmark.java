@@ -0,0 +1,377 @@
+package com.bigos.other;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Benchmarks of the pipelines shown in StreamLearning, StreamLearning1 and MethodReference.
+ * Every pipeline is measured on a sequential and on a parallel stream for 10, 1 000, 100 000 and
+ * 10 000 000 elements, i.e.:
+ * java -jar jmh/target/benchmarks.jar StreamBenchmark -prof gc
+ * java -jar jmh/target/benchmarks.jar "StreamBenchmark.groupingBy.*" -p size=100000
+ *
+ * Pipelines which are quadratic by design (string concatenation in a merge function or in a mutated identity)
+ * take a QuadraticInput, which stops at 100 000 elements - otherwise a single run would take hours.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class StreamBenchmark {
+
+    private static final String[] NAMES = {"Max", "Paul", "Patricia", "Dave", "Peter", "Anna", "Pamela", "Luke"};
+
+    // First example: filter -> map -> sorted
+
+    @Benchmark
+    public List<String> filterMapSorted(Input in) {
+        return in.strings
+                .stream()
+                .filter(a -> a.startsWith("c"))
+                .map(String::toUpperCase)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> filterMapSortedParallel(Input in) {
+        return in.strings
+                .parallelStream()
+                .filter(a -> a.startsWith("c"))
+                .map(String::toUpperCase)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // collect
+
+    @Benchmark
+    public Map<Integer, List<Person>> groupingBy(Input in) {
+        return in.persons
+                .stream()
+                .collect(Collectors.groupingBy(p -> p.age));
+    }
+
+    @Benchmark
+    public Map<Integer, List<Person>> groupingByParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(Collectors.groupingBy(p -> p.age));
+    }
+
+    @Benchmark
+    public Map<Integer, List<Person>> groupingByInt(Input in) {
+        return in.persons
+                .stream()
+                .collect(IntGroupingCollectors.groupingByInt(p -> p.age));
+    }
+
+    @Benchmark
+    public Map<Integer, List<Person>> groupingByIntParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(IntGroupingCollectors.groupingByInt(p -> p.age));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countingByIntParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(IntGroupingCollectors.countingByInt(p -> p.age));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countingByIntRangeParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(IntGroupingCollectors.countingByIntRange(p -> p.age, 0, 99));
+    }
+
+    @Benchmark
+    public Double averagingInt(Input in) {
+        return in.persons
+                .stream()
+                .collect(Collectors.averagingInt(p -> p.age));
+    }
+
+    @Benchmark
+    public Double averagingIntParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(Collectors.averagingInt(p -> p.age));
+    }
+
+    @Benchmark
+    public Map<Integer, String> toMapWithMerge(QuadraticInput in) {
+        return in.persons
+                .stream()
+                .collect(Collectors.toMap(p -> p.age, p -> p.name, (name1, name2) -> name1 + ";" + name2));
+    }
+
+    @Benchmark
+    public Map<Integer, String> toMapWithMergeParallel(QuadraticInput in) {
+        return in.persons
+                .parallelStream()
+                .collect(Collectors.toMap(p -> p.age, p -> p.name, (name1, name2) -> name1 + ";" + name2));
+    }
+
+    @Benchmark
+    public Map<Integer, String> toConcurrentMapJoining(Input in) {
+        return in.persons
+                .stream()
+                .collect(ConcurrentMapCollectors.toConcurrentMap(p -> p.age, p -> p.name, ";"));
+    }
+
+    @Benchmark
+    public Map<Integer, String> toConcurrentMapJoiningParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(ConcurrentMapCollectors.toConcurrentMap(p -> p.age, p -> p.name, ";"));
+    }
+
+    @Benchmark
+    public String stringJoinerCollector(Input in) {
+        return in.persons
+                .stream()
+                .collect(personNameCollector());
+    }
+
+    @Benchmark
+    public String stringJoinerCollectorParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(personNameCollector());
+    }
+
+    @Benchmark
+    public String chunkedJoinerCollector(Input in) {
+        return in.persons
+                .stream()
+                .collect(ChunkedJoiner.joining(p -> p.name.toUpperCase(), " | "));
+    }
+
+    @Benchmark
+    public String chunkedJoinerCollectorParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(ChunkedJoiner.joining(p -> p.name.toUpperCase(), " | "));
+    }
+
+    // reduce
+
+    @Benchmark
+    public Optional<Person> reduceOldest(Input in) {
+        return in.persons
+                .stream()
+                .reduce((p1, p2) -> p1.age > p2.age ? p1 : p2);
+    }
+
+    @Benchmark
+    public Optional<Person> reduceOldestParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .reduce((p1, p2) -> p1.age > p2.age ? p1 : p2);
+    }
+
+    @Benchmark
+    public List<Person> sortedLimit100OldestParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .sorted(Comparator.comparingInt((Person p) -> p.age).reversed())
+                .limit(100)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Person> topK100OldestParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(TopKCollectors.greatest(100, Comparator.comparingInt(p -> p.age)));
+    }
+
+    @Benchmark
+    public int quantileSketchAgeParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(IntQuantileSketch.sketching(p -> p.age))
+                .quantile(0.99);
+    }
+
+    // mutates its identity, so it is only correct (and only measured) on a sequential stream
+    @Benchmark
+    public Person reduceWithIdentity(QuadraticInput in) {
+        return in.persons
+                .stream()
+                .reduce(new Person("", 0), (p1, p2) -> {
+                    p1.age += p2.age;
+                    p1.name += p2.name;
+                    return p1;
+                });
+    }
+
+    @Benchmark
+    public PersonAggregate personAggregate(Input in) {
+        return in.persons
+                .stream()
+                .collect(PersonAggregate.aggregating());
+    }
+
+    @Benchmark
+    public PersonAggregate personAggregateParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .collect(PersonAggregate.aggregating());
+    }
+
+    @Benchmark
+    public Integer reduceWithCombiner(Input in) {
+        return in.persons
+                .stream()
+                .reduce(0, (sum, p) -> sum + p.age, (sum1, sum2) -> sum1 + sum2);
+    }
+
+    @Benchmark
+    public Integer reduceWithCombinerParallel(Input in) {
+        return in.persons
+                .parallelStream()
+                .reduce(0, (sum, p) -> sum + p.age, (sum1, sum2) -> sum1 + sum2);
+    }
+
+    // StreamLearning1: flatMap over Foo.bars
+
+    @Benchmark
+    public long flatMapBars(Input in) {
+        return in.foos
+                .stream()
+                .flatMap(f -> f.bars.stream())
+                .count();
+    }
+
+    @Benchmark
+    public long flatMapBarsParallel(Input in) {
+        return in.foos
+                .parallelStream()
+                .flatMap(f -> f.bars.stream())
+                .count();
+    }
+
+    @Benchmark
+    public long fooBarIndexBars(Input in) {
+        return in.fooBarIndex
+                .bars()
+                .count();
+    }
+
+    @Benchmark
+    public long fooBarIndexBarsParallel(Input in) {
+        return in.fooBarIndex
+                .bars(true)
+                .count();
+    }
+
+    // MethodReference: sort and box into a list
+
+    @Benchmark
+    public List<Integer> sortAndBoxedList(Input in) {
+        int[] array = in.ints.clone();
+        Arrays.sort(array);
+        return Arrays.stream(array).boxed().collect(Collectors.toList());
+    }
+
+    static Collector<Person, StringJoiner, String> personNameCollector() {
+        return Collector.of(
+                () -> new StringJoiner(" | "),
+                (j, p) -> j.add(p.name.toUpperCase()),
+                (j1, j2) -> j1.merge(j2),
+                StringJoiner::toString
+        );
+    }
+
+    /**
+     * Input data of a given size, built once per trial with a fixed seed so every run measures the same data.
+     */
+    @State(Scope.Benchmark)
+    public static class Input {
+
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        List<String> strings;
+        List<Person> persons;
+        List<Foo> foos;
+        FooBarIndex fooBarIndex;
+        int[] ints;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            strings = new ArrayList<>(size);
+            persons = persons(random, size);
+            ints = new int[size];
+            for (int i = 0; i < size; i++) {
+                strings.add((char) ('a' + random.nextInt(4)) + Integer.toString(random.nextInt(10)));
+                ints[i] = random.nextInt();
+            }
+            // two bars per foo, as in StreamLearning1
+            foos = new ArrayList<>(size / 2);
+            for (int i = 0; i < size / 2; i++) {
+                Foo foo = new Foo("foo" + i);
+                foo.bars.add(new Bar("bar1"));
+                foo.bars.add(new Bar("bar2"));
+                foos.add(foo);
+            }
+            fooBarIndex = new FooBarIndex(foos);
+            // build the lazy index now, not in the first measured invocation
+            fooBarIndex.barCount();
+        }
+    }
+
+    /**
+     * Persons for the quadratic pipelines, up to 100 000 of them.
+     */
+    @State(Scope.Benchmark)
+    public static class QuadraticInput {
+
+        @Param({"10", "1000", "100000"})
+        public int size;
+
+        List<Person> persons;
+
+        @Setup
+        public void setUp() {
+            persons = persons(new Random(42), size);
+        }
+    }
+
+    static List<Person> persons(Random random, int size) {
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person(NAMES[random.nextInt(NAMES.length)], random.nextInt(100)));
+        }
+        return persons;
+    }
+}
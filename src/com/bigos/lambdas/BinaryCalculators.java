@@ -0,0 +1,94 @@
+package com.bigos.lambdas;
+
+import java.util.stream.IntStream;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Bulk evaluation of a BinaryCalculator over arrays of operands: out[i] = calc.calculate(a[i], b[i]).
+ *
+ * Lambdas.calculate(calc, v1, v2) makes one interface call per pair of operands. When many different
+ * calculators go through the same call site it becomes megamorphic and the JIT can neither inline the
+ * lambda nor vectorize the loop. calculateAll recognises the common calculators defined here (ADD, SUBTRACT,
+ * MULTIPLY, DIVIDE, MIN, MAX) and runs a plain loop with the operation written inline, which the JIT
+ * can unroll and vectorize; any other calculator goes through the generic loop.
+ *
+ * calculateAllParallel splits the arrays into chunks of CHUNK_SIZE elements and evaluates the chunks
+ * in parallel (in the common ForkJoinPool).
+ */
+final class BinaryCalculators {
+
+    static final BinaryCalculator ADD = (a, b) -> a + b;
+    static final BinaryCalculator SUBTRACT = (a, b) -> a - b;
+    static final BinaryCalculator MULTIPLY = (a, b) -> a * b;
+    static final BinaryCalculator DIVIDE = (a, b) -> a / b;
+    static final BinaryCalculator MIN = Math::min;
+    static final BinaryCalculator MAX = Math::max;
+
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private BinaryCalculators() {
+    }
+
+    static void calculateAll(BinaryCalculator calc, double[] a, double[] b, double[] out) {
+        checkLengths(a, b, out);
+        calculateRange(calc, a, b, out, 0, out.length);
+    }
+
+    static void calculateAllParallel(BinaryCalculator calc, double[] a, double[] b, double[] out) {
+        checkLengths(a, b, out);
+        int length = out.length;
+        if (length <= CHUNK_SIZE) {
+            calculateRange(calc, a, b, out, 0, length);
+            return;
+        }
+        int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks)
+                .parallel()
+                .forEach(chunk -> {
+                    int from = chunk * CHUNK_SIZE;
+                    calculateRange(calc, a, b, out, from, Math.min(from + CHUNK_SIZE, length));
+                });
+    }
+
+    private static void checkLengths(double[] a, double[] b, double[] out) {
+        if (a.length != out.length || b.length != out.length) {
+            throw new IllegalArgumentException("arrays of different lengths: a=" + a.length + ", b=" + b.length
+                    + ", out=" + out.length);
+        }
+    }
+
+    // each branch is a separate loop, so every one of them is compiled with the operation inlined
+    private static void calculateRange(BinaryCalculator calc, double[] a, double[] b, double[] out,
+                                       int from, int to) {
+        if (calc == ADD) {
+            for (int i = from; i < to; i++) {
+                out[i] = a[i] + b[i];
+            }
+        } else if (calc == SUBTRACT) {
+            for (int i = from; i < to; i++) {
+                out[i] = a[i] - b[i];
+            }
+        } else if (calc == MULTIPLY) {
+            for (int i = from; i < to; i++) {
+                out[i] = a[i] * b[i];
+            }
+        } else if (calc == DIVIDE) {
+            for (int i = from; i < to; i++) {
+                out[i] = a[i] / b[i];
+            }
+        } else if (calc == MIN) {
+            for (int i = from; i < to; i++) {
+                out[i] = Math.min(a[i], b[i]);
+            }
+        } else if (calc == MAX) {
+            for (int i = from; i < to; i++) {
+                out[i] = Math.max(a[i], b[i]);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                out[i] = calc.calculate(a[i], b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.bigos.lambdas;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Writes the class file of a compiled FusedExpression: a final class implementing a functional interface
+ * whose only method calls a method handle kept in a static final field, i.e. for BinaryCalculator:
+ *
+ * final class FusedExpression$Compiled7 implements BinaryCalculator {
+ *     private static final MethodHandle TARGET = FusedExpression.take(7);
+ *
+ *     public double calculate(double value1, double value2) {
+ *         return (double) TARGET.invokeExact(value1, value2);
+ *     }
+ * }
+ *
+ * The code has no branches, so the class is written for Java 8 (version 52) without stack map frames.
+ */
+final class ExpressionClassWriter {
+
+    private static final int VERSION = 52;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int IRETURN = 0xac;
+    private static final int LRETURN = 0xad;
+    private static final int FRETURN = 0xae;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int LDC_W = 0x13;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+    private static final String METHOD_HANDLE_DESCRIPTOR = "L" + METHOD_HANDLE + ";";
+    private static final String TARGET = "TARGET";
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int poolCount = 1;
+
+    private ExpressionClassWriter() {
+    }
+
+    /**
+     * Class file of className (internal form, i.e. com/bigos/lambdas/FusedExpression$Compiled7) implementing
+     * the method of the functional interface, which must have the type of the method handle taken by id.
+     */
+    static byte[] write(String className, Class<?> functionalInterface, String methodName, MethodType type, int id) {
+        try {
+            return new ExpressionClassWriter().classFile(className, functionalInterface, methodName, type, id);
+        } catch (IOException e) {
+            // written to memory only
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] classFile(String className, Class<?> functionalInterface, String methodName, MethodType type,
+                             int id) throws IOException {
+        int thisClass = classConstant(className);
+        int superClass = classConstant(OBJECT);
+        int interfaceClass = classConstant(internalName(functionalInterface));
+        int target = fieldConstant(className, TARGET, METHOD_HANDLE_DESCRIPTOR);
+
+        // static initializer: TARGET = FusedExpression.take(id)
+        ByteArrayOutputStream initializer = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(initializer);
+        code.writeByte(LDC_W);
+        code.writeShort(integerConstant(id));
+        code.writeByte(INVOKESTATIC);
+        code.writeShort(methodConstant(internalName(FusedExpression.class), "take",
+                MethodType.methodType(MethodHandle.class, int.class).toMethodDescriptorString()));
+        code.writeByte(PUTSTATIC);
+        code.writeShort(target);
+        code.writeByte(RETURN);
+        byte[] staticInitializer = initializer.toByteArray();
+
+        // constructor: super()
+        ByteArrayOutputStream constructorCode = new ByteArrayOutputStream();
+        code = new DataOutputStream(constructorCode);
+        code.writeByte(ALOAD_0);
+        code.writeByte(INVOKESPECIAL);
+        code.writeShort(methodConstant(OBJECT, "<init>", "()V"));
+        code.writeByte(RETURN);
+        byte[] constructor = constructorCode.toByteArray();
+
+        // the interface method: return TARGET.invokeExact(arguments)
+        ByteArrayOutputStream methodCode = new ByteArrayOutputStream();
+        code = new DataOutputStream(methodCode);
+        code.writeByte(GETSTATIC);
+        code.writeShort(target);
+        int slot = 1;
+        for (Class<?> parameter : type.parameterArray()) {
+            code.writeByte(loadInstruction(parameter));
+            code.writeByte(slot);
+            slot += slots(parameter);
+        }
+        String descriptor = type.toMethodDescriptorString();
+        code.writeByte(INVOKEVIRTUAL);
+        code.writeShort(methodConstant(METHOD_HANDLE, "invokeExact", descriptor));
+        code.writeByte(returnInstruction(type.returnType()));
+        byte[] method = methodCode.toByteArray();
+        // the handle and the arguments; the result takes no more than that
+        int maxStack = Math.max(slot, 1 + slots(type.returnType()));
+
+        int codeName = utf8Constant("Code");
+        int targetName = utf8Constant(TARGET);
+        int targetDescriptor = utf8Constant(METHOD_HANDLE_DESCRIPTOR);
+        int staticInitializerName = utf8Constant("<clinit>");
+        int constructorName = utf8Constant("<init>");
+        int voidDescriptor = utf8Constant("()V");
+        int interfaceMethodName = utf8Constant(methodName);
+        int interfaceMethodDescriptor = utf8Constant(descriptor);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(VERSION);
+        out.writeShort(poolCount);
+        pool.flush();
+        poolBytes.writeTo(out);
+        out.writeShort(ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(interfaceClass);
+
+        out.writeShort(1);
+        out.writeShort(ACC_PRIVATE | ACC_STATIC | ACC_FINAL);
+        out.writeShort(targetName);
+        out.writeShort(targetDescriptor);
+        out.writeShort(0);
+
+        out.writeShort(3);
+        writeMethod(out, ACC_STATIC, staticInitializerName, voidDescriptor, codeName, 1, 0, staticInitializer);
+        writeMethod(out, ACC_PUBLIC, constructorName, voidDescriptor, codeName, 1, 1, constructor);
+        writeMethod(out, ACC_PUBLIC | ACC_FINAL, interfaceMethodName, interfaceMethodDescriptor, codeName,
+                maxStack, slot, method);
+
+        out.writeShort(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int codeName,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        // no exception table, no attributes
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private int utf8Constant(String value) throws IOException {
+        Integer index = constants.get("utf8 " + value);
+        if (index != null) {
+            return index;
+        }
+        pool.writeByte(CONSTANT_UTF8);
+        // the modified UTF-8 of DataOutput is the encoding of class files
+        pool.writeUTF(value);
+        return add("utf8 " + value);
+    }
+
+    private int integerConstant(int value) throws IOException {
+        Integer index = constants.get("int " + value);
+        if (index != null) {
+            return index;
+        }
+        pool.writeByte(CONSTANT_INTEGER);
+        pool.writeInt(value);
+        return add("int " + value);
+    }
+
+    private int classConstant(String internalName) throws IOException {
+        Integer index = constants.get("class " + internalName);
+        if (index != null) {
+            return index;
+        }
+        int name = utf8Constant(internalName);
+        pool.writeByte(CONSTANT_CLASS);
+        pool.writeShort(name);
+        return add("class " + internalName);
+    }
+
+    private int fieldConstant(String owner, String name, String descriptor) throws IOException {
+        return memberConstant(CONSTANT_FIELDREF, owner, name, descriptor);
+    }
+
+    private int methodConstant(String owner, String name, String descriptor) throws IOException {
+        return memberConstant(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+
+    private int memberConstant(int tag, String owner, String name, String descriptor) throws IOException {
+        String key = tag + " " + owner + "." + name + descriptor;
+        Integer index = constants.get(key);
+        if (index != null) {
+            return index;
+        }
+        int ownerClass = classConstant(owner);
+        int nameIndex = utf8Constant(name);
+        int descriptorIndex = utf8Constant(descriptor);
+        pool.writeByte(CONSTANT_NAME_AND_TYPE);
+        pool.writeShort(nameIndex);
+        pool.writeShort(descriptorIndex);
+        int nameAndType = add("nameAndType " + key);
+        pool.writeByte(tag);
+        pool.writeShort(ownerClass);
+        pool.writeShort(nameAndType);
+        return add(key);
+    }
+
+    private int add(String key) {
+        constants.put(key, poolCount);
+        return poolCount++;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static int slots(Class<?> type) {
+        if (type == void.class) {
+            return 0;
+        }
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static int loadInstruction(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return ALOAD;
+        }
+        if (type == long.class) {
+            return LLOAD;
+        }
+        if (type == float.class) {
+            return FLOAD;
+        }
+        if (type == double.class) {
+            return DLOAD;
+        }
+        return ILOAD;
+    }
+
+    private static int returnInstruction(Class<?> type) {
+        if (type == void.class) {
+            return RETURN;
+        }
+        if (!type.isPrimitive()) {
+            return ARETURN;
+        }
+        if (type == long.class) {
+            return LRETURN;
+        }
+        if (type == float.class) {
+            return FRETURN;
+        }
+        if (type == double.class) {
+            return DRETURN;
+        }
+        return IRETURN;
+    }
+}
@@ -0,0 +1,263 @@
+package com.bigos.lambdas;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Builds a chain of BinaryCalculator, DoubleUnaryOperator, Function and Predicate lambdas into a single
+ * method handle (java.lang.invoke - the same machinery lambdas themselves are built on).
+ *
+ * calc.andThen(f).andThen(g) style composition creates a lambda per step, and every step calls the next one
+ * through an interface; a deep chain is a tree of small objects the JIT has to inline one call at a time
+ * (and gives up once the call sites see many different lambdas). Here every step is bound into one method
+ * handle with MethodHandles.filterReturnValue.
+ *
+ * The JIT inlines a method handle only when it is a constant, and a handle captured by a lambda is an
+ * instance field, which the JIT does not trust. So toBinaryCalculator() / toDoubleUnaryOperator() /
+ * toFunction() / toPredicate() compile the expression into a class of its own: the handle is kept in a
+ * static final field of that class and its interface method calls the handle with invokeExact (see
+ * ExpressionClassWriter). The class is defined with MethodHandles.Lookup.defineClass, which Java 9+ has;
+ * on Java 8 the handle is wrapped in a lambda as before and is not inlined. Every call defines a new class,
+ * which is never unloaded - build an expression once and keep the result, i.e. in a static final field.
+ *
+ * ofFunction, andThenApply and andThenTest have their own names, so a lambda like x -> x + 1 passed to of
+ * or andThen is never ambiguous. Doubles flow between BinaryCalculator and DoubleUnaryOperator steps unboxed;
+ * they are boxed only when a Function or Predicate step follows.
+ *
+ * Usage:
+ * static final BinaryCalculator HYPOT = FusedExpression.of((a, b) -> a * a + b * b)
+ *         .andThen(Math::sqrt)
+ *         .toBinaryCalculator();
+ */
+final class FusedExpression {
+
+    private static final MethodHandle CALCULATE;
+    private static final MethodHandle APPLY_AS_DOUBLE;
+    private static final MethodHandle APPLY;
+    private static final MethodHandle TEST;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            CALCULATE = lookup.findVirtual(BinaryCalculator.class, "calculate",
+                    MethodType.methodType(double.class, double.class, double.class));
+            APPLY_AS_DOUBLE = lookup.findVirtual(DoubleUnaryOperator.class, "applyAsDouble",
+                    MethodType.methodType(double.class, double.class));
+            APPLY = lookup.findVirtual(Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class));
+            TEST = lookup.findVirtual(Predicate.class, "test",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // MethodHandles.Lookup.defineClass(byte[]), Java 9+; null on Java 8
+    private static final Method DEFINE_CLASS = defineClassMethod();
+    private static final AtomicInteger COMPILED = new AtomicInteger();
+    // handles of the classes being compiled, each taken by the static initializer of its class
+    private static final Map<Integer, MethodHandle> COMPILING = new ConcurrentHashMap<>();
+
+    private final MethodHandle handle;
+
+    private FusedExpression(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    static FusedExpression of(BinaryCalculator calc) {
+        return new FusedExpression(CALCULATE.bindTo(calc));
+    }
+
+    static FusedExpression of(DoubleUnaryOperator operator) {
+        return new FusedExpression(APPLY_AS_DOUBLE.bindTo(operator));
+    }
+
+    static FusedExpression ofFunction(Function<?, ?> function) {
+        return new FusedExpression(APPLY.bindTo(function));
+    }
+
+    /**
+     * result = operator(previous result). The previous step must produce a double.
+     */
+    FusedExpression andThen(DoubleUnaryOperator operator) {
+        requireReturn(double.class);
+        return new FusedExpression(MethodHandles.filterReturnValue(handle, APPLY_AS_DOUBLE.bindTo(operator)));
+    }
+
+    /**
+     * result = calc(previous result, operand). The previous step must produce a double.
+     */
+    FusedExpression andThen(BinaryCalculator calc, double operand) {
+        requireReturn(double.class);
+        MethodHandle step = MethodHandles.insertArguments(CALCULATE.bindTo(calc), 1, operand);
+        return new FusedExpression(MethodHandles.filterReturnValue(handle, step));
+    }
+
+    /**
+     * result = function(previous result), a double result of the previous step is boxed.
+     */
+    FusedExpression andThenApply(Function<?, ?> function) {
+        return new FusedExpression(MethodHandles.filterReturnValue(returningObject(), APPLY.bindTo(function)));
+    }
+
+    /**
+     * result = predicate(previous result), a double result of the previous step is boxed.
+     * A predicate ends the chain - the result is a boolean.
+     */
+    FusedExpression andThenTest(Predicate<?> predicate) {
+        return new FusedExpression(MethodHandles.filterReturnValue(returningObject(), TEST.bindTo(predicate)));
+    }
+
+    BinaryCalculator toBinaryCalculator() {
+        MethodHandle target = exactly(MethodType.methodType(double.class, double.class, double.class));
+        BinaryCalculator compiled = compile(BinaryCalculator.class, "calculate", target);
+        if (compiled != null) {
+            return compiled;
+        }
+        return (value1, value2) -> {
+            try {
+                return (double) target.invokeExact(value1, value2);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    DoubleUnaryOperator toDoubleUnaryOperator() {
+        MethodHandle target = exactly(MethodType.methodType(double.class, double.class));
+        DoubleUnaryOperator compiled = compile(DoubleUnaryOperator.class, "applyAsDouble", target);
+        if (compiled != null) {
+            return compiled;
+        }
+        return value -> {
+            try {
+                return (double) target.invokeExact(value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    <T, R> Function<T, R> toFunction() {
+        if (handle.type().parameterCount() != 1) {
+            throw new IllegalStateException("expression is not a function of one argument: " + handle.type());
+        }
+        MethodHandle target = handle.asType(MethodType.methodType(Object.class, Object.class));
+        @SuppressWarnings("unchecked")
+        Function<T, R> compiled = compile(Function.class, "apply", target);
+        if (compiled != null) {
+            return compiled;
+        }
+        return t -> {
+            try {
+                @SuppressWarnings("unchecked")
+                R result = (R) target.invokeExact((Object) t);
+                return result;
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    <T> Predicate<T> toPredicate() {
+        requireReturn(boolean.class);
+        if (handle.type().parameterCount() != 1) {
+            throw new IllegalStateException("expression is not a predicate of one argument: " + handle.type());
+        }
+        MethodHandle target = handle.asType(MethodType.methodType(boolean.class, Object.class));
+        @SuppressWarnings("unchecked")
+        Predicate<T> compiled = compile(Predicate.class, "test", target);
+        if (compiled != null) {
+            return compiled;
+        }
+        return t -> {
+            try {
+                return (boolean) target.invokeExact((Object) t);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * Called by the static initializer of a compiled class, once.
+     */
+    static MethodHandle take(int id) {
+        return COMPILING.remove(id);
+    }
+
+    /**
+     * Instance of a new class implementing the method of functionalInterface with target,
+     * or null when classes can not be defined (Java 8).
+     */
+    private static <F> F compile(Class<F> functionalInterface, String methodName, MethodHandle target) {
+        if (DEFINE_CLASS == null) {
+            return null;
+        }
+        int id = COMPILED.incrementAndGet();
+        String className = FusedExpression.class.getName().replace('.', '/') + "$Compiled" + id;
+        byte[] classFile = ExpressionClassWriter.write(className, functionalInterface, methodName, target.type(), id);
+        COMPILING.put(id, target);
+        try {
+            Class<?> compiled = (Class<?>) DEFINE_CLASS.invoke(MethodHandles.lookup(), (Object) classFile);
+            // initializes the class, which takes the handle
+            return functionalInterface.cast(compiled.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("can not compile expression " + target.type(), e);
+        } finally {
+            COMPILING.remove(id);
+        }
+    }
+
+    private static Method defineClassMethod() {
+        try {
+            return MethodHandles.Lookup.class.getMethod("defineClass", byte[].class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private void requireReturn(Class<?> type) {
+        if (handle.type().returnType() != type) {
+            throw new IllegalStateException("previous step returns " + handle.type().returnType()
+                    + ", expected " + type);
+        }
+    }
+
+    private MethodHandle returningObject() {
+        Class<?> returnType = handle.type().returnType();
+        if (returnType == boolean.class) {
+            throw new IllegalStateException("nothing can follow a predicate");
+        }
+        return handle.asType(handle.type().changeReturnType(Object.class));
+    }
+
+    private MethodHandle exactly(MethodType type) {
+        if (!handle.type().equals(type)) {
+            throw new IllegalStateException("expression has type " + handle.type() + ", expected " + type);
+        }
+        return handle;
+    }
+
+    // lambdas in the chain can only throw unchecked exceptions, they are rethrown as they are
+    // (a compiled class does not catch them at all)
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
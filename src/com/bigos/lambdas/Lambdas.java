@@ -1,7 +1,10 @@
 package com.bigos.lambdas;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -91,10 +94,24 @@ public class Lambdas {
         // using lambda on functional interface
         System.out.println("<<<<<<<<<<<<<<<<<<<<<<<<using lambda on functional interface>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>");
         (new Thread(() -> System.out.println("hello from lambda"))).start();
+        // many tasks: a thread per task is expensive, run them on virtual threads (Java 21+) in a scope instead
+        try (TaskRunner runner = TaskRunner.virtual(); TaskRunner.Scope scope = runner.open()) {
+            scope.fork(() -> System.out.println("hello from a task"));
+            Future<String> result = scope.fork(() -> "result of a task");
+            scope.join();
+            System.out.println(result.get() + (runner.isVirtual() ? " (virtual thread)" : " (platform thread)"));
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+
 
         // using functional interfaces created by yourself
         System.out.println("<<<<<<<<<<<<<<<<<<<<<<<<<<using functional interfaces created by yourself>>>>>>>>>>>>>>>>>");
         System.out.printf("a * b = %3.0f\n", calculate((a, b) -> a * b, 3, 7));
+        // the same for whole arrays of operands - one call instead of one call per pair
+        double[] products = new double[3];
+        BinaryCalculators.calculateAll(BinaryCalculators.MULTIPLY, new double[]{3, 4, 5}, new double[]{7, 8, 9}, products);
+        System.out.println("a[i] * b[i] = " + Arrays.toString(products));
 
         // Lambda body - a nested lambda
         try {
@@ -123,6 +140,9 @@ public class Lambdas {
         // function example
         Function<Integer,String> converter = (i)-> Integer.toString(i);
         System.out.println("convert integer to string : " + converter.apply(3));
+        // chaining lambdas - converter and predicate fused into a single method handle
+        Predicate<Integer> longNumber = FusedExpression.ofFunction(converter).andThenTest(predicate).toPredicate();
+        System.out.println("does 1234567 have more than 5 digits? " + longNumber.test(1234567));
     }
 
 
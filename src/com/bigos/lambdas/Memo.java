@@ -0,0 +1,241 @@
+package com.bigos.lambdas;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Memoizing wrapper for pure functions: Function, Supplier and BinaryCalculator.
+ *
+ * Results are kept in a bounded cache with least recently used eviction and an optional time to live.
+ * The cache is split into segments (LinkedHashMaps in access order), each guarded by its own lock, so
+ * threads working on different keys rarely wait for each other. The function itself is called outside
+ * of the lock: the first thread asking for a key computes the value, threads asking for the same key
+ * in the meantime wait for that result - so a value is computed once per key even under heavy
+ * multi-threaded access. A function which throws is not cached, the next call tries again.
+ *
+ * Hits, misses and evictions are counted with LongAdders.
+ *
+ * Usage:
+ * Memo<String, String> lower = Memo.of(String::toLowerCase, 10_000);
+ * lower.apply("ABC");
+ * System.out.println(lower.hits() + " / " + lower.misses());
+ */
+public final class Memo<K, V> implements Function<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Function<? super K, ? extends V> function;
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Memo(Function<? super K, ? extends V> function, int maxSize, long ttlNanos) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.function = function;
+        this.ttlNanos = ttlNanos;
+        int segmentCount = Integer.highestOneBit(Math.min(MAX_SEGMENTS, maxSize));
+        int segmentSize = (maxSize + segmentCount - 1) / segmentCount;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentSize, evictions);
+        }
+    }
+
+    /**
+     * Caches up to (about) maxSize results - the bound is applied per segment.
+     */
+    public static <K, V> Memo<K, V> of(Function<? super K, ? extends V> function, int maxSize) {
+        return new Memo<>(function, maxSize, 0);
+    }
+
+    /**
+     * As of(function, maxSize), but a result is recomputed when it is older than ttl.
+     */
+    public static <K, V> Memo<K, V> of(Function<? super K, ? extends V> function, int maxSize,
+                                       long ttl, TimeUnit unit) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        return new Memo<>(function, maxSize, unit.toNanos(ttl));
+    }
+
+    /**
+     * Supplier which calls supplier once and returns that value from then on.
+     */
+    public static <T> Supplier<T> supplier(Supplier<? extends T> supplier) {
+        return supplier(supplier, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Supplier which calls supplier again when its last value is older than ttl.
+     */
+    public static <T> Supplier<T> supplier(Supplier<? extends T> supplier, long ttl, TimeUnit unit) {
+        Memo<Boolean, T> memo = of(key -> supplier.get(), 1, ttl, unit);
+        return () -> memo.apply(Boolean.TRUE);
+    }
+
+    /**
+     * Calculator which remembers the results for up to maxSize pairs of operands.
+     */
+    static BinaryCalculator calculator(BinaryCalculator calc, int maxSize) {
+        Memo<Operands, Double> memo = of(operands -> calc.calculate(operands.value1, operands.value2), maxSize);
+        return (value1, value2) -> memo.apply(new Operands(value1, value2));
+    }
+
+    @Override
+    public V apply(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        Cached<V> entry;
+        boolean owner = false;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry == null || expired(entry)) {
+                entry = new Cached<>(System.nanoTime());
+                segment.put(key, entry);
+                owner = true;
+            }
+        }
+        if (!owner) {
+            hits.increment();
+            return join(entry.value);
+        }
+        misses.increment();
+        try {
+            V value = function.apply(key);
+            entry.value.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // any Throwable, a checked exception thrown sneakily too - otherwise the future is never
+            // completed and every later caller of this key waits for it forever
+            synchronized (segment) {
+                segment.remove(key, entry);
+            }
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key == null ? 0 : key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    private boolean expired(Cached<V> entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.created > ttlNanos;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Cached<V> {
+        final long created;
+        final CompletableFuture<V> value = new CompletableFuture<>();
+
+        Cached(long created) {
+            this.created = created;
+        }
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Cached<V>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+        private final LongAdder evictions;
+
+        Segment(int maxSize, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Cached<V>> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Operands {
+        final double value1;
+        final double value2;
+
+        Operands(double value1, double value2) {
+            this.value1 = value1;
+            this.value2 = value2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Operands)) {
+                return false;
+            }
+            Operands other = (Operands) o;
+            return Double.compare(value1, other.value1) == 0 && Double.compare(value2, other.value2) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(value1) + Double.hashCode(value2);
+        }
+    }
+}
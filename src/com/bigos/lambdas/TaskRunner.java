@@ -0,0 +1,226 @@
+package com.bigos.lambdas;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Runs many Runnable / Callable tasks, either on virtual threads or on a fixed pool of platform threads.
+ *
+ * Lambdas.main starts a new platform Thread per Runnable. That does not scale to many blocking tasks:
+ * every platform thread has its own OS thread and stack. Virtual threads (Java 21+) are cheap, blocking
+ * one unmounts it from its carrier thread, so a million sleeping tasks is fine.
+ * This project is written for Java 8, so virtual threads are looked up by reflection: virtual() uses
+ * Executors.newVirtualThreadPerTaskExecutor() when the JVM has it and falls back to a cached pool of
+ * platform threads otherwise (isVirtual() tells which one you got - do not fork a million blocking tasks
+ * into the fallback). platform(n) is a fixed pool for comparison.
+ *
+ * Tasks are forked in a Scope, in the spirit of structured concurrency: join() waits for all tasks of the
+ * scope; if one of them fails the others are cancelled, tasks forked later are not run, and join() throws
+ * its exception once the cancelled tasks have actually stopped. Closing the scope cancels whatever is still
+ * running and waits for it too, so no task of a scope outlives it.
+ *
+ * Usage:
+ * try (TaskRunner runner = TaskRunner.virtual(); TaskRunner.Scope scope = runner.open()) {
+ *     Future<String> a = scope.fork(() -> "a");
+ *     scope.fork(() -> System.out.println("hello from a task"));
+ *     scope.join();
+ *     System.out.println(a.get());
+ * }
+ */
+public final class TaskRunner implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    private TaskRunner(ExecutorService executor, boolean virtual) {
+        this.executor = executor;
+        this.virtual = virtual;
+    }
+
+    /**
+     * A new virtual thread per task, or a cached pool of platform threads before Java 21.
+     */
+    public static TaskRunner virtual() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return new TaskRunner((ExecutorService) factory.invoke(null), true);
+        } catch (NoSuchMethodException e) {
+            return new TaskRunner(Executors.newCachedThreadPool(), false);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("can not create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * A fixed pool of the given number of platform threads.
+     */
+    public static TaskRunner platform(int threads) {
+        return new TaskRunner(Executors.newFixedThreadPool(threads), false);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    /**
+     * Waits for all submitted tasks (started in any scope) and stops the threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, tasks are still running
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Group of tasks joined together. Not meant to be shared between threads - fork and join from the
+     * thread which opened it.
+     */
+    public final class Scope implements AutoCloseable {
+
+        // tasks cancel their siblings from their own threads, so the queue is concurrent
+        private final Queue<Future<?>> futures = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // forked tasks which have not finished yet: a cancelled task counts until its thread leaves it
+        private final AtomicInteger running = new AtomicInteger();
+        private final Object lock = new Object();
+
+        private Scope() {
+        }
+
+        /**
+         * Submits the task. Once a task of this scope failed, the task is not run any more and the returned
+         * future is cancelled.
+         */
+        public <T> Future<T> fork(Callable<T> task) {
+            // set by whichever comes first: the task starting, or its cancellation before it started
+            AtomicBoolean started = new AtomicBoolean();
+            // the failing task completes its own future with the failure, it cancels only the others
+            AtomicReference<Future<?>> self = new AtomicReference<>();
+            FutureTask<T> future = new FutureTask<T>(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return task.call();
+                } catch (Throwable t) {
+                    if (failure.compareAndSet(null, t)) {
+                        cancelAll(self.get());
+                    }
+                    throw t;
+                } finally {
+                    finished();
+                }
+            }) {
+                @Override
+                protected void done() {
+                    if (isCancelled() && started.compareAndSet(false, true)) {
+                        finished();
+                    }
+                }
+            };
+            self.set(future);
+            running.incrementAndGet();
+            futures.add(future);
+            // checked after adding, so either this sees the failure or the failing task sees this future
+            if (failure.get() != null) {
+                future.cancel(false);
+                return future;
+            }
+            try {
+                executor.execute(future);
+            } catch (RejectedExecutionException e) {
+                future.cancel(false);
+                throw e;
+            }
+            return future;
+        }
+
+        public Future<?> fork(Runnable task) {
+            return fork(() -> {
+                task.run();
+                return null;
+            });
+        }
+
+        /**
+         * Waits until all forked tasks have finished - the cancelled ones included, a task which ignores
+         * the interrupt is waited for.
+         *
+         * @throws ExecutionException with the first failure, the other tasks are cancelled then
+         */
+        public void join() throws InterruptedException, ExecutionException {
+            synchronized (lock) {
+                while (running.get() != 0) {
+                    lock.wait();
+                }
+            }
+            Throwable first = failure.get();
+            if (first != null) {
+                throw new ExecutionException(first);
+            }
+        }
+
+        private void finished() {
+            if (running.decrementAndGet() == 0) {
+                synchronized (lock) {
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        private void cancelAll(Future<?> except) {
+            for (Future<?> future : futures) {
+                if (future != except) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Cancels the tasks which are still running and waits until they have finished.
+         */
+        @Override
+        public void close() {
+            cancelAll(null);
+            boolean interrupted = false;
+            synchronized (lock) {
+                while (running.get() != 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
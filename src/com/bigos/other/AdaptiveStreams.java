@@ -0,0 +1,208 @@
+package com.bigos.other;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Parallel stream sources which split only as long as the pieces are worth a fork/join task.
+ *
+ * A parallel stream splits its source until the pieces are about size / (4 * parallelism) elements,
+ * no matter how cheap the work per element is. myList.parallelStream() over 5 strings, or
+ * IntStream.range(0, 1000).parallel().mapToObj(...), spends more time forking, stealing and joining tasks
+ * than in the pipeline itself.
+ *
+ * Here the caller gives a cost hint - estimated nanos of the pipeline per element - and a minimum work
+ * per split (DEFAULT_MIN_SPLIT_NANOS unless given). The spliterator refuses to split a piece whose work
+ * (estimateSize() * nanosPerElement) is below twice the minimum, so every forked task gets at least the
+ * minimum work. A source whose whole work is below that gives a sequential stream. Above the threshold
+ * the underlying spliterator (of an ArrayList, an array, a range) splits as it always does, evenly.
+ *
+ * The hint does not need to be exact, an order of magnitude is enough - measure the pipeline once
+ * sequentially (i.e. with PipelineProbe or StreamBenchmark) and divide by the number of elements.
+ *
+ * Usage:
+ * AdaptiveStreams.parallel(myList, 50)
+ *         .map(String::toUpperCase)
+ *         .forEach(System.out::println);          // 5 elements * 50 ns - runs sequentially
+ */
+public final class AdaptiveStreams {
+
+    /**
+     * Minimum work of a forked task. A fork/join task costs a few microseconds (creating, pushing,
+     * stealing, joining it), so a task should do at least ten times more.
+     */
+    public static final long DEFAULT_MIN_SPLIT_NANOS = 50_000;
+
+    private AdaptiveStreams() {
+    }
+
+    public static <T> Stream<T> parallel(List<T> list, long nanosPerElement) {
+        return parallel(list, nanosPerElement, DEFAULT_MIN_SPLIT_NANOS);
+    }
+
+    public static <T> Stream<T> parallel(List<T> list, long nanosPerElement, long minSplitNanos) {
+        return stream(list.spliterator(), nanosPerElement, minSplitNanos);
+    }
+
+    /**
+     * Parallel (if worth it) stream of the spliterator's elements.
+     */
+    public static <T> Stream<T> stream(Spliterator<T> spliterator, long nanosPerElement, long minSplitNanos) {
+        MinWorkSpliterator<T> adaptive = new MinWorkSpliterator<>(spliterator, nanosPerElement, minSplitNanos);
+        return StreamSupport.stream(adaptive, adaptive.worthSplitting());
+    }
+
+    /**
+     * The same as IntStream.range(from, to).parallel(), sequential if the range is too small to split.
+     */
+    public static IntStream parallelRange(int from, int to, long nanosPerElement) {
+        return parallelRange(from, to, nanosPerElement, DEFAULT_MIN_SPLIT_NANOS);
+    }
+
+    public static IntStream parallelRange(int from, int to, long nanosPerElement, long minSplitNanos) {
+        MinWorkIntSpliterator adaptive = new MinWorkIntSpliterator(IntStream.range(from, to).spliterator(),
+                nanosPerElement, minSplitNanos);
+        return StreamSupport.intStream(adaptive, adaptive.worthSplitting());
+    }
+
+    private static void checkHints(long nanosPerElement, long minSplitNanos) {
+        if (nanosPerElement <= 0 || minSplitNanos <= 0) {
+            throw new IllegalArgumentException("nanosPerElement and minSplitNanos must be positive: "
+                    + nanosPerElement + ", " + minSplitNanos);
+        }
+    }
+
+    // both halves of a split must get at least minSplitNanos of work
+    private static boolean worthSplitting(long size, long nanosPerElement, long minSplitNanos) {
+        long work = size > Long.MAX_VALUE / nanosPerElement ? Long.MAX_VALUE : size * nanosPerElement;
+        return work / 2 >= minSplitNanos;
+    }
+
+    /**
+     * Delegates to a spliterator, but does not split it below the minimum work.
+     */
+    static final class MinWorkSpliterator<T> implements Spliterator<T> {
+
+        private final Spliterator<T> delegate;
+        private final long nanosPerElement;
+        private final long minSplitNanos;
+
+        MinWorkSpliterator(Spliterator<T> delegate, long nanosPerElement, long minSplitNanos) {
+            checkHints(nanosPerElement, minSplitNanos);
+            this.delegate = delegate;
+            this.nanosPerElement = nanosPerElement;
+            this.minSplitNanos = minSplitNanos;
+        }
+
+        boolean worthSplitting() {
+            return AdaptiveStreams.worthSplitting(delegate.estimateSize(), nanosPerElement, minSplitNanos);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (!worthSplitting()) {
+                return null;
+            }
+            Spliterator<T> prefix = delegate.trySplit();
+            return prefix == null ? null : new MinWorkSpliterator<>(prefix, nanosPerElement, minSplitNanos);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return delegate.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            delegate.forEachRemaining(action);
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return delegate.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return delegate.getComparator();
+        }
+    }
+
+    /**
+     * MinWorkSpliterator of ints, so IntStream stays unboxed.
+     */
+    static final class MinWorkIntSpliterator implements Spliterator.OfInt {
+
+        private final Spliterator.OfInt delegate;
+        private final long nanosPerElement;
+        private final long minSplitNanos;
+
+        MinWorkIntSpliterator(Spliterator.OfInt delegate, long nanosPerElement, long minSplitNanos) {
+            checkHints(nanosPerElement, minSplitNanos);
+            this.delegate = delegate;
+            this.nanosPerElement = nanosPerElement;
+            this.minSplitNanos = minSplitNanos;
+        }
+
+        boolean worthSplitting() {
+            return AdaptiveStreams.worthSplitting(delegate.estimateSize(), nanosPerElement, minSplitNanos);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (!worthSplitting()) {
+                return null;
+            }
+            Spliterator.OfInt prefix = delegate.trySplit();
+            return prefix == null ? null : new MinWorkIntSpliterator(prefix, nanosPerElement, minSplitNanos);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            return delegate.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            delegate.forEachRemaining(action);
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return delegate.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return delegate.getComparator();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.bigos.other;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Push pipeline moving elements between stages in batches, with a producer thread reading the source.
+ *
+ * A stream moves elements one at a time through the whole chain ("vertically", see the lazy init examples
+ * in StreamLearning). For a slow (I/O bound) source it is better to read ahead: here a producer thread
+ * pulls elements from the source iterator, groups them into batches of batchSize and puts the batches into
+ * a bounded queue. When the consumer is slower than the producer the queue fills up and the producer
+ * blocks (backpressure), so at most queueCapacity batches are held in memory.
+ *
+ * The consumer (the thread calling the terminal operation) runs every stage (map, filter) on a whole batch
+ * before the next stage - one loop per stage per batch instead of a chain of calls per element.
+ * Short-circuiting terminal operations (anyMatch, findFirst) stop as soon as the result is known and
+ * cancel the producer. The results are the same as for the equivalent stream; stages may only see more
+ * elements than a stream would (up to the rest of the current batch and the batches read ahead).
+ *
+ * A pipeline can be consumed once.
+ *
+ * Usage:
+ * boolean any = BatchedPipeline.from(source, 256, 4)
+ *         .map(String::toUpperCase)
+ *         .anyMatch(s -> s.startsWith("A"));
+ */
+public class BatchedPipeline<T> {
+
+    private static final long POLL_MILLIS = 100;
+    // end of the source marker, compared by identity
+    private static final List<Object> END = new ArrayList<>(0);
+
+    private final Iterator<?> source;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final List<Stage> stages;
+
+    private BatchedPipeline(Iterator<?> source, int batchSize, int queueCapacity, List<Stage> stages) {
+        this.source = source;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.stages = stages;
+    }
+
+    public static <T> BatchedPipeline<T> from(Iterator<? extends T> source, int batchSize, int queueCapacity) {
+        if (batchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("batchSize and queueCapacity must be positive: "
+                    + batchSize + ", " + queueCapacity);
+        }
+        return new BatchedPipeline<>(source, batchSize, queueCapacity, new ArrayList<>());
+    }
+
+    public static <T> BatchedPipeline<T> from(Iterable<? extends T> source, int batchSize, int queueCapacity) {
+        return from(source.iterator(), batchSize, queueCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> BatchedPipeline<R> map(Function<? super T, ? extends R> mapper) {
+        return with(batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.set(i, mapper.apply((T) batch.get(i)));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public BatchedPipeline<T> filter(Predicate<? super T> predicate) {
+        return with(batch -> {
+            // compact the matching elements to the front of the batch
+            int kept = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Object element = batch.get(i);
+                if (predicate.test((T) element)) {
+                    batch.set(kept++, element);
+                }
+            }
+            batch.subList(kept, batch.size()).clear();
+        });
+    }
+
+    private <R> BatchedPipeline<R> with(Stage stage) {
+        List<Stage> next = new ArrayList<>(stages);
+        next.add(stage);
+        return new BatchedPipeline<>(source, batchSize, queueCapacity, next);
+    }
+
+    public void forEach(Consumer<? super T> action) {
+        run(element -> {
+            action.accept(element);
+            return false;
+        });
+    }
+
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return run(predicate::test);
+    }
+
+    public boolean allMatch(Predicate<? super T> predicate) {
+        return !run(element -> !predicate.test(element));
+    }
+
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        return !run(predicate::test);
+    }
+
+    public Optional<T> findFirst() {
+        List<T> first = new ArrayList<>(1);
+        run(element -> {
+            first.add(element);
+            return true;
+        });
+        return first.isEmpty() ? Optional.empty() : Optional.of(first.get(0));
+    }
+
+    public long count() {
+        long[] count = new long[1];
+        run(element -> {
+            count[0]++;
+            return false;
+        });
+        return count[0];
+    }
+
+    /**
+     * Runs the pipeline until sink returns true (the short-circuit) or the source is exhausted.
+     *
+     * @return true if the sink short-circuited
+     */
+    @SuppressWarnings("unchecked")
+    private boolean run(Predicate<? super T> sink) {
+        Producer producer = new Producer();
+        Thread thread = new Thread(producer, "batched-pipeline-producer");
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            while (true) {
+                List<Object> batch = producer.queue.take();
+                if (batch == END) {
+                    if (producer.failure != null) {
+                        throw rethrow(producer.failure);
+                    }
+                    return false;
+                }
+                for (Stage stage : stages) {
+                    stage.apply(batch);
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                }
+                for (Object element : batch) {
+                    if (sink.test((T) element)) {
+                        return true;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a batch", e);
+        } finally {
+            producer.cancelled = true;
+        }
+    }
+
+    // the failure of the source as is, only a checked exception (thrown sneakily) is wrapped
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IllegalStateException("source failed", failure);
+    }
+
+    // a stage transforms a batch in place
+    private interface Stage {
+        void apply(List<Object> batch);
+    }
+
+    private final class Producer implements Runnable {
+        final BlockingQueue<List<Object>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        volatile boolean cancelled;
+        volatile Throwable failure;
+
+        @Override
+        public void run() {
+            try {
+                List<Object> batch = new ArrayList<>(batchSize);
+                while (!cancelled && source.hasNext()) {
+                    batch.add(source.next());
+                    if (batch.size() == batchSize) {
+                        if (!put(batch)) {
+                            return;
+                        }
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty() && !put(batch)) {
+                    return;
+                }
+            } catch (Throwable e) {
+                failure = e;
+            }
+            put(END);
+        }
+
+        // blocks while the queue is full (backpressure), gives up when the consumer is gone
+        private boolean put(List<Object> batch) {
+            try {
+                while (!cancelled) {
+                    if (queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bigos.other;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Joining collector which copies every character exactly once.
+ *
+ * A collector built on StringJoiner (Collector.of(() -> new StringJoiner(" | "), ..., StringJoiner::merge, ...))
+ * appends every element into a growing buffer (copying it again at each resize) and, in a parallel stream,
+ * merge() copies the whole right-hand joiner into the left one at every level of the split tree.
+ *
+ * ChunkedJoiner only collects references to the strings: each container keeps a list of chunks (lists of
+ * strings), combining two containers just moves the chunk references of the right one to the left one,
+ * and the finisher computes the exact length of the result and fills a buffer of that size once.
+ *
+ * The collector is ordered (the result is the same as for a sequential stream) and has no characteristics.
+ *
+ * Usage:
+ * String names = persons.parallelStream().collect(ChunkedJoiner.joining(p -> p.name.toUpperCase(), " | "));
+ */
+public final class ChunkedJoiner {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final List<List<String>> chunks = new ArrayList<>();
+    private List<String> current;
+    private long length;
+    private long count;
+
+    private ChunkedJoiner() {
+    }
+
+    public static Collector<CharSequence, ?, String> joining(CharSequence delimiter) {
+        return joining(delimiter, "", "");
+    }
+
+    public static Collector<CharSequence, ?, String> joining(CharSequence delimiter,
+                                                             CharSequence prefix, CharSequence suffix) {
+        return joining(Function.identity(), delimiter, prefix, suffix);
+    }
+
+    public static <T> Collector<T, ?, String> joining(Function<? super T, ? extends CharSequence> mapper,
+                                                      CharSequence delimiter) {
+        return joining(mapper, delimiter, "", "");
+    }
+
+    public static <T> Collector<T, ?, String> joining(Function<? super T, ? extends CharSequence> mapper,
+                                                      CharSequence delimiter,
+                                                      CharSequence prefix, CharSequence suffix) {
+        String delimiterString = delimiter.toString();
+        String prefixString = prefix.toString();
+        String suffixString = suffix.toString();
+        return Collector.of(
+                ChunkedJoiner::new,
+                (joiner, t) -> joiner.add(mapper.apply(t)),
+                ChunkedJoiner::combine,
+                joiner -> joiner.join(delimiterString, prefixString, suffixString));
+    }
+
+    void add(CharSequence element) {
+        // a no-op for a String, a snapshot for a mutable CharSequence (and "null" for null, as in StringJoiner)
+        String string = String.valueOf(element);
+        if (current == null || current.size() == CHUNK_SIZE) {
+            current = new ArrayList<>(CHUNK_SIZE);
+            chunks.add(current);
+        }
+        current.add(string);
+        length += string.length();
+        count++;
+    }
+
+    ChunkedJoiner combine(ChunkedJoiner other) {
+        chunks.addAll(other.chunks);
+        // the last chunk of other may be partially filled, keep appending to it
+        current = other.current != null ? other.current : current;
+        length += other.length;
+        count += other.count;
+        return this;
+    }
+
+    String join(String delimiter, String prefix, String suffix) {
+        long total = length + prefix.length() + suffix.length()
+                + (count > 0 ? (count - 1) * delimiter.length() : 0);
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("joined string too long: " + total + " chars");
+        }
+        StringBuilder builder = new StringBuilder((int) total);
+        builder.append(prefix);
+        boolean first = true;
+        for (List<String> chunk : chunks) {
+            for (String string : chunk) {
+                if (!first) {
+                    builder.append(delimiter);
+                }
+                builder.append(string);
+                first = false;
+            }
+        }
+        return builder.append(suffix).toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bigos.other;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * toMap collectors for parallel streams over many keys, collecting into one shared ConcurrentHashMap.
+ *
+ * Collectors.toMap(p -> p.age, p -> p.name, (name1, name2) -> name1 + ";" + name2) on a parallel stream
+ * fills a HashMap per split and merges the maps pairwise, and its merge function copies the whole
+ * string joined so far for every further value of a key - quadratic for hot keys.
+ *
+ * These collectors are CONCURRENT and UNORDERED: all threads accumulate into a single ConcurrentHashMap
+ * (which is internally striped per bin), nothing is merged at the end. Values of a key are not merged
+ * one by one either - they are accumulated into a per-key container of a downstream "merger" collector
+ * (i.e. ChunkedJoiner.joining(";"), which only collects references) and finished once per key.
+ * Containers of a non-concurrent merger are guarded by their own lock.
+ *
+ * As the collectors are UNORDERED, the values of a key are merged in no particular order.
+ *
+ * Usage:
+ * Map<Integer, String> namesByAge = persons.parallelStream()
+ *         .collect(ConcurrentMapCollectors.toConcurrentMap(p -> p.age, p -> p.name, ";"));
+ */
+public final class ConcurrentMapCollectors {
+
+    private ConcurrentMapCollectors() {
+    }
+
+    /**
+     * Values of every key are collected with merger, i.e. Collectors.summingInt(...) or ChunkedJoiner.joining(...).
+     */
+    public static <T, K, V, A, R> Collector<T, ?, Map<K, R>> toConcurrentMap(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper,
+            Collector<? super V, A, R> merger) {
+        Supplier<A> supplier = merger.supplier();
+        BiConsumer<A, ? super V> accumulator = merger.accumulator();
+        BinaryOperator<A> combiner = merger.combiner();
+        Function<A, R> finisher = merger.finisher();
+        boolean concurrentMerger = merger.characteristics().contains(Collector.Characteristics.CONCURRENT);
+
+        return Collector.<T, ConcurrentHashMap<K, A>, Map<K, R>>of(
+                ConcurrentHashMap::new,
+                (map, t) -> {
+                    A container = map.computeIfAbsent(keyMapper.apply(t), key -> supplier.get());
+                    V value = valueMapper.apply(t);
+                    if (concurrentMerger) {
+                        accumulator.accept(container, value);
+                    } else {
+                        synchronized (container) {
+                            accumulator.accept(container, value);
+                        }
+                    }
+                },
+                // only used if the stream can not be collected concurrently (i.e. it is ordered)
+                (left, right) -> {
+                    right.forEach((key, container) -> left.merge(key, container, combiner));
+                    return left;
+                },
+                map -> {
+                    Map<K, R> result = new HashMap<>(map.size() * 2);
+                    map.forEach((key, container) -> result.put(key, finisher.apply(container)));
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Values of every key are joined with the delimiter - the linear replacement of
+     * toMap(keyMapper, valueMapper, (v1, v2) -> v1 + delimiter + v2).
+     */
+    public static <T, K> Collector<T, ?, Map<K, String>> toConcurrentMap(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends CharSequence> valueMapper,
+            CharSequence delimiter) {
+        return toConcurrentMap(keyMapper, valueMapper, ChunkedJoiner.joining(delimiter));
+    }
+}
@@ -0,0 +1,255 @@
+package com.bigos.other;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Flattened index of the bars of many foos (compressed sparse row layout):
+ * - bars of all foos are stored one after another in a single Bar[],
+ * - offsets[f] is the index of the first bar of foo f, offsets[f + 1] the index after its last one.
+ *
+ * foos.stream().flatMap(f -> f.bars.stream()) creates a stream for every foo and can not split inside
+ * the inner streams; bars() is a single array-backed stream which splits evenly for parallel streams.
+ * The foo a bar belongs to is found by binary search in offsets.
+ *
+ * The index is built lazily, on the first read. Adding foos, or bars to the last foo, appends to the arrays.
+ * A bar added to any other foo is appended to a pending segment; pending bars are merged into the array by
+ * the next read which needs the order of the bars (bar, bars, barsOf, parentIndexOf). The merge sorts only
+ * the pending bars and moves only the bars behind the first foo they belong to, so a batch of additions
+ * is merged once, and additions near the end are cheap.
+ * Bars added to foo.bars directly (not through addBar) are seen only if added before the first read.
+ *
+ * Not thread-safe for writers. A stream reads the arrays as they were when it was created.
+ */
+public class FooBarIndex {
+
+    private final List<Foo> foos;
+    private Bar[] bars = new Bar[0];
+    private int barCount;
+    private int[] offsets = new int[1];
+    private boolean dirty = true;
+    // bars added to foos other than the last one, not merged into bars yet
+    private int[] pendingFoos = new int[0];
+    private Bar[] pendingBars = new Bar[0];
+    private int pendingCount;
+    // a stream reads bars, so the merge must not move the bars within it
+    private boolean shared;
+
+    public FooBarIndex() {
+        this(new ArrayList<>());
+    }
+
+    public FooBarIndex(Collection<Foo> foos) {
+        this.foos = new ArrayList<>(foos);
+    }
+
+    public void addFoo(Foo foo) {
+        foos.add(foo);
+        if (!dirty) {
+            ensureFooCapacity(foos.size() + 1);
+            for (Bar bar : foo.bars) {
+                appendBar(bar);
+            }
+            offsets[foos.size()] = barCount;
+        }
+    }
+
+    /**
+     * Adds the bar to the foo at fooIndex - both to foo.bars and to the index.
+     */
+    public void addBar(int fooIndex, Bar bar) {
+        Foo foo = foos.get(fooIndex);
+        foo.bars.add(bar);
+        if (dirty) {
+            return;
+        }
+        if (fooIndex == foos.size() - 1) {
+            appendBar(bar);
+            offsets[foos.size()] = barCount;
+        } else {
+            appendPending(fooIndex, bar);
+        }
+    }
+
+    public int fooCount() {
+        return foos.size();
+    }
+
+    public int barCount() {
+        build();
+        return barCount + pendingCount;
+    }
+
+    public Foo foo(int fooIndex) {
+        return foos.get(fooIndex);
+    }
+
+    public Bar bar(int barIndex) {
+        merge();
+        checkBar(barIndex);
+        return bars[barIndex];
+    }
+
+    /**
+     * All bars, in the same order as foos.stream().flatMap(f -> f.bars.stream()).
+     */
+    public Stream<Bar> bars() {
+        return bars(false);
+    }
+
+    public Stream<Bar> bars(boolean parallel) {
+        merge();
+        shared = true;
+        return StreamSupport.stream(Spliterators.spliterator(bars, 0, barCount,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL), parallel);
+    }
+
+    /**
+     * Bars of a single foo.
+     */
+    public Stream<Bar> barsOf(int fooIndex) {
+        merge();
+        if (fooIndex < 0 || fooIndex >= foos.size()) {
+            throw new IndexOutOfBoundsException("foo: " + fooIndex + ", foos: " + foos.size());
+        }
+        shared = true;
+        return Arrays.stream(bars, offsets[fooIndex], offsets[fooIndex + 1]);
+    }
+
+    /**
+     * Index of the foo the bar at barIndex belongs to.
+     */
+    public int parentIndexOf(int barIndex) {
+        merge();
+        checkBar(barIndex);
+        // the first foo whose bars end after barIndex
+        int low = 0;
+        int high = foos.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (offsets[middle + 1] > barIndex) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    public Foo parentOf(int barIndex) {
+        return foos.get(parentIndexOf(barIndex));
+    }
+
+    private void checkBar(int barIndex) {
+        if (barIndex < 0 || barIndex >= barCount) {
+            throw new IndexOutOfBoundsException("bar: " + barIndex + ", bars: " + barCount);
+        }
+    }
+
+    private void build() {
+        if (!dirty) {
+            return;
+        }
+        int total = 0;
+        for (Foo foo : foos) {
+            total += foo.bars.size();
+        }
+        bars = new Bar[total];
+        offsets = new int[foos.size() + 1];
+        barCount = 0;
+        for (int f = 0; f < foos.size(); f++) {
+            offsets[f] = barCount;
+            for (Bar bar : foos.get(f).bars) {
+                bars[barCount++] = bar;
+            }
+        }
+        offsets[foos.size()] = barCount;
+        dirty = false;
+    }
+
+    /**
+     * Inserts the pending bars behind the bars of their foos, in the order they were added.
+     */
+    private void merge() {
+        build();
+        if (pendingCount == 0) {
+            return;
+        }
+        // foo index in the high half, order of addition in the low half
+        long[] order = new long[pendingCount];
+        for (int i = 0; i < pendingCount; i++) {
+            order[i] = (long) pendingFoos[i] << 32 | i;
+        }
+        Arrays.sort(order);
+
+        int total = barCount + pendingCount;
+        Bar[] target = bars;
+        if (bars.length < total) {
+            target = new Bar[Math.max(total, bars.length + (bars.length >> 1))];
+        } else if (shared) {
+            target = new Bar[bars.length];
+        }
+        // from the last foo with pending bars backwards, so bars are moved only to not yet read positions
+        int end = barCount;
+        int write = total;
+        for (int i = pendingCount - 1; i >= 0; ) {
+            int foo = (int) (order[i] >>> 32);
+            int from = offsets[foo + 1];
+            write -= end - from;
+            System.arraycopy(bars, from, target, write, end - from);
+            for (; i >= 0 && (int) (order[i] >>> 32) == foo; i--) {
+                target[--write] = pendingBars[(int) order[i]];
+            }
+            end = from;
+        }
+        if (target != bars) {
+            System.arraycopy(bars, 0, target, 0, end);
+            shared = false;
+        }
+        // every foo moves by the number of pending bars of the foos before it
+        int moved = 0;
+        int i = 0;
+        for (int f = (int) (order[0] >>> 32) + 1; f <= foos.size(); f++) {
+            for (; i < pendingCount && (int) (order[i] >>> 32) < f; i++) {
+                moved++;
+            }
+            offsets[f] += moved;
+        }
+
+        bars = target;
+        barCount = total;
+        Arrays.fill(pendingBars, 0, pendingCount, null);
+        pendingCount = 0;
+    }
+
+    private void appendPending(int fooIndex, Bar bar) {
+        if (pendingCount == pendingBars.length) {
+            int capacity = pendingCount + (pendingCount >> 1) + 1;
+            pendingFoos = Arrays.copyOf(pendingFoos, capacity);
+            pendingBars = Arrays.copyOf(pendingBars, capacity);
+        }
+        pendingFoos[pendingCount] = fooIndex;
+        pendingBars[pendingCount++] = bar;
+    }
+
+    private void appendBar(Bar bar) {
+        if (barCount == bars.length) {
+            bars = Arrays.copyOf(bars, barCount + (barCount >> 1) + 1);
+        }
+        bars[barCount++] = bar;
+    }
+
+    private void ensureFooCapacity(int capacity) {
+        if (offsets.length < capacity) {
+            offsets = Arrays.copyOf(offsets, Math.max(capacity, offsets.length + (offsets.length >> 1)));
+        }
+    }
+}
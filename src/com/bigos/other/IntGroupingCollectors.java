@@ -0,0 +1,186 @@
+package com.bigos.other;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * "group by" collectors specialized for int keys, like the age in
+ * persons.stream().collect(Collectors.groupingBy(p -> p.age)).
+ *
+ * Collectors.groupingBy boxes the key of every element into an Integer and looks it up in a HashMap.
+ * These collectors take a ToIntFunction classifier and group in open addressing maps with int keys
+ * (IntLongHashMap, IntObjectHashMap), or - when the range of keys is known and small, as with ages -
+ * directly in an array indexed by the key. Keys are boxed only once per group, when the result map is built.
+ *
+ * All of them work with parallel streams: every thread fills its own container. The counting and summing
+ * combiners merge the smaller container into the bigger one (or add two arrays). groupingByInt keeps the
+ * encounter order, so its combiner always appends the right container to the left one - a group is a list
+ * of chunks and appending links the chunks, no element is copied.
+ *
+ * Usage:
+ * Map<Integer, Long> countByAge = persons.stream().collect(IntGroupingCollectors.countingByInt(p -> p.age));
+ */
+public final class IntGroupingCollectors {
+
+    private IntGroupingCollectors() {
+    }
+
+    /**
+     * Same result as groupingBy(classifier, counting()).
+     */
+    public static <T> Collector<T, ?, Map<Integer, Long>> countingByInt(ToIntFunction<? super T> classifier) {
+        return Collector.of(
+                IntLongHashMap::new,
+                (map, t) -> map.addTo(classifier.applyAsInt(t), 1),
+                IntGroupingCollectors::combine,
+                IntLongHashMap::toMap,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Same result as groupingBy(classifier, summingLong(mapper)).
+     */
+    public static <T> Collector<T, ?, Map<Integer, Long>> summingByInt(ToIntFunction<? super T> classifier,
+                                                                       ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                IntLongHashMap::new,
+                (map, t) -> map.addTo(classifier.applyAsInt(t), mapper.applyAsLong(t)),
+                IntGroupingCollectors::combine,
+                IntLongHashMap::toMap,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Same result as groupingBy(classifier) - elements of each group keep the encounter order.
+     * Elements are collected into chunks (Group) which never get copied when they fill up, and every list
+     * of the result is created once with the exact size of its group.
+     */
+    public static <T> Collector<T, ?, Map<Integer, List<T>>> groupingByInt(ToIntFunction<? super T> classifier) {
+        return Collector.<T, IntObjectHashMap<Group<T>>, Map<Integer, List<T>>>of(
+                IntObjectHashMap::new,
+                (map, t) -> map.computeIfAbsent(classifier.applyAsInt(t), key -> new Group<>()).add(t),
+                (left, right) -> {
+                    // right holds elements encountered after left, so they are appended to left's groups
+                    left.mergeAll(right, Group::append);
+                    return left;
+                },
+                map -> map.toMap(Group::toList));
+    }
+
+    /**
+     * Same result as groupingBy(classifier, counting()) for keys in [minKey, maxKey]. Counts are kept in
+     * a long[] indexed by (key - minKey), so there is no hashing at all. A key outside of the range
+     * throws IllegalArgumentException.
+     */
+    public static <T> Collector<T, ?, Map<Integer, Long>> countingByIntRange(ToIntFunction<? super T> classifier,
+                                                                             int minKey, int maxKey) {
+        long range = (long) maxKey - minKey + 1;
+        if (range <= 0 || range > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("invalid key range: [" + minKey + ", " + maxKey + "]");
+        }
+        return Collector.of(
+                () -> new long[(int) range],
+                (counts, t) -> {
+                    int key = classifier.applyAsInt(t);
+                    if (key < minKey || key > maxKey) {
+                        throw new IllegalArgumentException(
+                                "key " + key + " outside of range [" + minKey + ", " + maxKey + "]");
+                    }
+                    counts[key - minKey]++;
+                },
+                (left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                },
+                counts -> {
+                    Map<Integer, Long> result = new HashMap<>();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0) {
+                            result.put(i + minKey, counts[i]);
+                        }
+                    }
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Elements of a single group in a linked list of chunks. A full chunk is followed by a new, bigger one
+     * (up to MAX_CHUNK elements), so adding never copies elements and appending a group just links its chunks.
+     */
+    private static final class Group<T> {
+
+        private static final int FIRST_CHUNK = 8;
+        private static final int MAX_CHUNK = 1 << 12;
+
+        private Chunk first;
+        private Chunk last;
+        private int size;
+
+        void add(T t) {
+            if (last == null || last.size == last.elements.length) {
+                Chunk chunk = new Chunk(Math.min(Math.max(size, FIRST_CHUNK), MAX_CHUNK));
+                if (last == null) {
+                    first = chunk;
+                } else {
+                    last.next = chunk;
+                }
+                last = chunk;
+            }
+            last.elements[last.size++] = t;
+            size++;
+        }
+
+        Group<T> append(Group<T> other) {
+            if (other.first != null) {
+                if (first == null) {
+                    first = other.first;
+                } else {
+                    last.next = other.first;
+                }
+                last = other.last;
+                size += other.size;
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> toList() {
+            List<T> list = new ArrayList<>(size);
+            for (Chunk chunk = first; chunk != null; chunk = chunk.next) {
+                for (int i = 0; i < chunk.size; i++) {
+                    list.add((T) chunk.elements[i]);
+                }
+            }
+            return list;
+        }
+
+        private static final class Chunk {
+            final Object[] elements;
+            int size;
+            Chunk next;
+
+            Chunk(int capacity) {
+                elements = new Object[capacity];
+            }
+        }
+    }
+
+    private static IntLongHashMap combine(IntLongHashMap left, IntLongHashMap right) {
+        if (left.size() < right.size()) {
+            right.addAll(left);
+            return right;
+        }
+        left.addAll(right);
+        return left;
+    }
+}
@@ -0,0 +1,110 @@
+package com.bigos.other;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Open addressing hash map from int keys to long values (linear probing, load factor 0.5).
+ * Keys and values are kept in primitive arrays, so neither is boxed while counting or summing.
+ * Boxing happens only once per distinct key, in toMap().
+ *
+ * Not thread-safe - every collector container gets its own instance and instances are merged with addAll().
+ */
+final class IntLongHashMap {
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    IntLongHashMap() {
+        this(16);
+    }
+
+    IntLongHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        return capacity < 0 ? 1 << 30 : capacity;
+    }
+
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    void addTo(int key, long delta) {
+        int i = hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] += delta;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = delta;
+        if (++size > (mask + 1) >> 1) {
+            rehash();
+        }
+    }
+
+    long get(int key) {
+        int i = hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    void addAll(IntLongHashMap other) {
+        for (int i = 0; i < other.used.length; i++) {
+            if (other.used[i]) {
+                addTo(other.keys[i], other.values[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    Map<Integer, Long> toMap() {
+        Map<Integer, Long> map = new HashMap<>(size * 2);
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                map.put(keys[i], values[i]);
+            }
+        }
+        return map;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                addTo(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
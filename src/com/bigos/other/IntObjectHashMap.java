@@ -0,0 +1,139 @@
+package com.bigos.other;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Open addressing hash map from int keys to objects, the object counterpart of IntLongHashMap.
+ * Keys are never boxed while the map is filled, only once per distinct key in toMap().
+ *
+ * Not thread-safe.
+ */
+final class IntObjectHashMap<V> {
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    IntObjectHashMap() {
+        this(16);
+    }
+
+    IntObjectHashMap(int expectedSize) {
+        allocate(IntLongHashMap.tableSizeFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int i = IntLongHashMap.hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(int key, IntFunction<? extends V> factory) {
+        int i = IntLongHashMap.hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        V value = factory.apply(key);
+        insert(i, key, value);
+        return value;
+    }
+
+    /**
+     * Puts all entries of other into this map, combining values of keys present in both with merger.
+     */
+    @SuppressWarnings("unchecked")
+    void mergeAll(IntObjectHashMap<V> other, BinaryOperator<V> merger) {
+        for (int j = 0; j < other.used.length; j++) {
+            if (!other.used[j]) {
+                continue;
+            }
+            int key = other.keys[j];
+            V value = (V) other.values[j];
+            int i = IntLongHashMap.hash(key) & mask;
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (used[i]) {
+                values[i] = merger.apply((V) values[i], value);
+            } else {
+                insert(i, key, value);
+            }
+        }
+    }
+
+    private void insert(int slot, int key, V value) {
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) >> 1) {
+            rehash();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    Map<Integer, V> toMap() {
+        return toMap(Function.identity());
+    }
+
+    /**
+     * Boxes the keys into a HashMap, with every value converted by the mapper.
+     */
+    @SuppressWarnings("unchecked")
+    <R> Map<Integer, R> toMap(Function<? super V, ? extends R> mapper) {
+        Map<Integer, R> map = new HashMap<>(size * 2);
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                map.put(keys[i], mapper.apply((V) values[i]));
+            }
+        }
+        return map;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length << 1);
+        size = 0;
+        for (int j = 0; j < oldUsed.length; j++) {
+            if (oldUsed[j]) {
+                int i = IntLongHashMap.hash(oldKeys[j]) & mask;
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                used[i] = true;
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.bigos.other;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Mergeable sketch of the distribution of int values (i.e. ages) answering quantile queries - median,
+ * p99 - in a single pass and bounded memory, without sorting the stream.
+ *
+ * Values are counted in buckets:
+ * - every value in (-EXACT_LIMIT, EXACT_LIMIT) has its own bucket, so quantiles of small values (ages,
+ *   counts, sizes) are exact,
+ * - larger magnitudes are bucketed logarithmically, a power of two range is split into EXACT_LIMIT / 2
+ *   buckets, so a quantile is off by less than 2 / EXACT_LIMIT (0.2%) of its value.
+ * At most about 2 * 12 000 long counters, allocated only up to the largest bucket used. Two sketches
+ * are merged by adding their counters, so the result does not depend on how a parallel stream was split
+ * (unlike t-digest, whose accuracy depends on the order of merges).
+ *
+ * quantile(q) is the nearest rank: the smallest value v such that at least q * count() values are <= v.
+ *
+ * Usage:
+ * IntQuantileSketch ages = persons.parallelStream().collect(IntQuantileSketch.sketching(p -> p.age));
+ * System.out.println(ages.median() + " " + ages.quantile(0.99));
+ * or for an IntStream:
+ * ints.collect(IntQuantileSketch::new, IntQuantileSketch::accept, IntQuantileSketch::combine)
+ *
+ * Not thread-safe, every thread of a parallel stream gets its own sketch.
+ */
+public final class IntQuantileSketch implements IntConsumer {
+
+    // values below it (in magnitude) are counted exactly, must be a power of two
+    static final int EXACT_BITS = 10;
+    static final int EXACT_LIMIT = 1 << EXACT_BITS;
+    private static final int HALF = EXACT_LIMIT >> 1;
+
+    // counts of values >= 0 and of magnitudes of values < 0, by bucket
+    private long[] positive = new long[0];
+    private long[] negative = new long[0];
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    public static <T> Collector<T, ?, IntQuantileSketch> sketching(ToIntFunction<? super T> mapper) {
+        return Collector.of(
+                IntQuantileSketch::new,
+                (sketch, t) -> sketch.accept(mapper.applyAsInt(t)),
+                IntQuantileSketch::combine,
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    @Override
+    public void accept(int value) {
+        if (value >= 0) {
+            positive = increment(positive, bucket(value));
+        } else {
+            negative = increment(negative, bucket(-(long) value));
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    private static long[] increment(long[] counts, int bucket) {
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(bucket + 1, Math.min(counts.length * 2, bucket(1L << 31) + 1)));
+        }
+        counts[bucket]++;
+        return counts;
+    }
+
+    /**
+     * Adds the values of the other sketch to this one.
+     */
+    public IntQuantileSketch combine(IntQuantileSketch other) {
+        positive = add(positive, other.positive);
+        negative = add(negative, other.negative);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    private static long[] add(long[] counts, long[] other) {
+        if (other.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.length);
+        }
+        for (int i = 0; i < other.length; i++) {
+            counts[i] += other[i];
+        }
+        return counts;
+    }
+
+    // magnitude in [0, 2^31]
+    static int bucket(long magnitude) {
+        if (magnitude < EXACT_LIMIT) {
+            return (int) magnitude;
+        }
+        // shift so that HALF <= magnitude >>> shift < EXACT_LIMIT
+        int shift = 63 - Long.numberOfLeadingZeros(magnitude) - (EXACT_BITS - 1);
+        return EXACT_LIMIT + (shift - 1) * HALF + (int) ((magnitude >>> shift) - HALF);
+    }
+
+    // the smallest magnitude of the bucket
+    static long lowerBound(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT_LIMIT) / HALF + 1;
+        return ((long) ((bucket - EXACT_LIMIT) % HALF + HALF)) << shift;
+    }
+
+    // the greatest magnitude of the bucket
+    static long upperBound(int bucket) {
+        return bucket < EXACT_LIMIT ? bucket : lowerBound(bucket + 1) - 1;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public int min() {
+        checkNotEmpty();
+        return min;
+    }
+
+    public int max() {
+        checkNotEmpty();
+        return max;
+    }
+
+    public int median() {
+        return quantile(0.5);
+    }
+
+    /**
+     * Value at the given quantile (0 - min, 0.5 - median, 1 - max), exact for values in
+     * (-EXACT_LIMIT, EXACT_LIMIT), otherwise the middle of the bucket holding it.
+     *
+     * @throws IllegalStateException if no value was added
+     */
+    public int quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]: " + quantile);
+        }
+        checkNotEmpty();
+        long rank = Math.max((long) Math.ceil(quantile * count), 1);
+        long seen = 0;
+        // negative values from the greatest magnitude down, then positive ones up
+        for (int i = negative.length - 1; i >= 0; i--) {
+            seen += negative[i];
+            if (seen >= rank) {
+                return clamp(-((lowerBound(i) + upperBound(i)) / 2));
+            }
+        }
+        for (int i = 0; i < positive.length; i++) {
+            seen += positive[i];
+            if (seen >= rank) {
+                return clamp((lowerBound(i) + upperBound(i)) / 2);
+            }
+        }
+        return max;
+    }
+
+    // the middle of the first or the last bucket may lie outside of the values seen
+    private int clamp(long value) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new IllegalStateException("no values");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return count == 0 ? "IntQuantileSketch{count=0}"
+                : "IntQuantileSketch{count=" + count + ", min=" + min + ", p50=" + median()
+                + ", p90=" + quantile(0.9) + ", p99=" + quantile(0.99) + ", max=" + max + '}';
+    }
+}
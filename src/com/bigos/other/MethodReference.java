@@ -1,5 +1,7 @@
 package com.bigos.other;
 
+import com.bigos.lambdas.Memo;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
@@ -38,6 +40,9 @@ public class MethodReference {
         // doing list from array
         List<Integer> list = Arrays.stream(array).boxed().collect(Collectors.toList());
         System.out.println(list.toString());
+        // the same without boxing - sorted into a list of primitive ints
+        IntList intList = PrimitiveSort.sortedList(10, 2, 19, 5, 17);
+        System.out.println(intList);
         //the same with lambda
         int[] array1 = { 19, 5, 14, 3, 21, 4 };
         Consumer<int[]> consumer3 = (a) -> Arrays.sort(a);
@@ -59,6 +64,12 @@ public class MethodReference {
         System.out.println("STRING TO LOWER CASE with method reference: " + function.apply("STRING TO LOWER CASE"));
         Function<String, String> function1 = (string) -> string.toLowerCase();
         System.out.println("STRING TO LOWER CASE with lambda: " + function1.apply("STRING TO LOWER CASE"));
+        // method reference wrapped in a cache - every distinct string is converted only once
+        Memo<String, String> memoizedFunction = Memo.of(String::toLowerCase, 1000);
+        memoizedFunction.apply("STRING TO LOWER CASE");
+        System.out.println("STRING TO LOWER CASE with memoized method reference: "
+                + memoizedFunction.apply("STRING TO LOWER CASE")
+                + " (hits: " + memoizedFunction.hits() + ", misses: " + memoizedFunction.misses() + ")");
 
         // References to constructors
         System.out.println("<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<References to constructors>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>");
@@ -0,0 +1,295 @@
+package com.bigos.other;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Interning dictionary of names (Person.name, Foo.name, Bar.name) kept off-heap. Every distinct name is
+ * stored once, UTF-8 encoded, in a direct ByteBuffer and gets an int id (0, 1, 2, ... in the order of
+ * interning). Records hold the id instead of a String, so hundreds of millions of records with a few
+ * thousand distinct names cost an int each, and the GC has no name objects to trace or copy.
+ * On heap are only the int[] offsets of the names and the open addressing table from a name to its id.
+ *
+ * Comparison, prefix tests and toUpperCase work on the encoded bytes and never create a String:
+ * - compare(id1, id2) orders by the UTF-8 bytes, which is the order of the code points. It is the same as
+ *   String.compareTo unless a name has characters outside the BMP (String compares UTF-16 chars),
+ * - startsWith(id, "P") or prefix("P") (the prefix is encoded once) for p.name.startsWith("P"),
+ * - toUpperCase(id) is the id of the upper cased name - computed once per id, ASCII names are upper cased
+ *   byte by byte, others through String.toUpperCase(Locale.ROOT).
+ * name(id) decodes a String the first time it is asked for and keeps it, so repeated calls (i.e. for every
+ * row of a PersonTable with that name) return the same String - only the names which are asked for are on heap.
+ *
+ * Not thread-safe for writers - intern and toUpperCase (which interns) must not run concurrently with
+ * anything else. Once filled, name, compare and startsWith can be called from many threads.
+ */
+public final class NameDictionary {
+
+    private static final int INITIAL_BYTES = 4096;
+    private static final int INITIAL_NAMES = 64;
+    private static final int UNKNOWN = -1;
+
+    // names one after another, position() is the end of the last one
+    private ByteBuffer bytes = ByteBuffer.allocateDirect(INITIAL_BYTES);
+    // name id starts at offsets[id] and ends at offsets[id + 1]
+    private int[] offsets = new int[INITIAL_NAMES + 1];
+    private int[] hashes = new int[INITIAL_NAMES];
+    // id of the upper cased name, UNKNOWN until asked for
+    private int[] upperIds = new int[INITIAL_NAMES];
+    // decoded names, null until asked for
+    private String[] decoded = new String[INITIAL_NAMES];
+    private int size;
+
+    // id + 1 of the name hashed to the slot, 0 for an empty slot
+    private int[] table = new int[IntLongHashMap.tableSizeFor(INITIAL_NAMES)];
+    private int mask = table.length - 1;
+
+    // encoding buffer for ASCII names, reused by intern
+    private byte[] scratch = new byte[64];
+
+    public int intern(String name) {
+        int length = name.length();
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+                return intern(encoded, 0, encoded.length);
+            }
+            scratch[i] = (byte) c;
+        }
+        return intern(scratch, 0, length);
+    }
+
+    /**
+     * Interns a UTF-8 encoded name, i.e. straight from the bytes of a record read from a file.
+     */
+    public int intern(byte[] name, int offset, int length) {
+        int hash = hash(name, offset, length);
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && equals(id, name, offset, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = append(name, offset, length, hash);
+        table[slot] = id + 1;
+        if (size > (mask + 1) >> 1) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Id of the name, or -1 if it was never interned.
+     */
+    public int idOf(String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(encoded, 0, encoded.length);
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && equals(id, encoded, 0, encoded.length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int append(byte[] name, int offset, int length, int hash) {
+        if (bytes.remaining() < length) {
+            long needed = (long) bytes.position() + length;
+            if (needed > Integer.MAX_VALUE) {
+                throw new IllegalStateException("names do not fit into 2GB");
+            }
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Math.max(needed, bytes.capacity() * 2L),
+                    Integer.MAX_VALUE));
+            bytes.flip();
+            grown.put(bytes);
+            // the old buffer is freed when it is garbage collected
+            bytes = grown;
+        }
+        if (size == hashes.length) {
+            int capacity = size * 2;
+            offsets = Arrays.copyOf(offsets, capacity + 1);
+            hashes = Arrays.copyOf(hashes, capacity);
+            upperIds = Arrays.copyOf(upperIds, capacity);
+            decoded = Arrays.copyOf(decoded, capacity);
+        }
+        bytes.put(name, offset, length);
+        int id = size++;
+        offsets[id + 1] = bytes.position();
+        hashes[id] = hash;
+        upperIds[id] = UNKNOWN;
+        return id;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    private static int hash(byte[] name, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + name[i];
+        }
+        return IntLongHashMap.hash(h);
+    }
+
+    private boolean equals(int id, byte[] name, int offset, int length) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes.get(start + i) != name[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Off-heap bytes taken by the names.
+     */
+    public int byteSize() {
+        return offsets[size];
+    }
+
+    public String name(int id) {
+        checkId(id);
+        // readers may race to decode the same name, any of the equal Strings will do
+        String name = decoded[id];
+        if (name == null) {
+            byte[] encoded = new byte[offsets[id + 1] - offsets[id]];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = bytes.get(offsets[id] + i);
+            }
+            name = new String(encoded, StandardCharsets.UTF_8);
+            decoded[id] = name;
+        }
+        return name;
+    }
+
+    /**
+     * Length of the encoded name in bytes (the same as name(id).length() for ASCII names).
+     */
+    public int byteLength(int id) {
+        checkId(id);
+        return offsets[id + 1] - offsets[id];
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("id: " + id + ", size: " + size);
+        }
+    }
+
+    /**
+     * Compares the names by their UTF-8 bytes (unsigned), see the class comment for the order.
+     */
+    public int compare(int id1, int id2) {
+        checkId(id1);
+        checkId(id2);
+        if (id1 == id2) {
+            return 0;
+        }
+        int start1 = offsets[id1];
+        int start2 = offsets[id2];
+        int length1 = offsets[id1 + 1] - start1;
+        int length2 = offsets[id2 + 1] - start2;
+        for (int i = 0; i < Math.min(length1, length2); i++) {
+            int b1 = bytes.get(start1 + i) & 0xFF;
+            int b2 = bytes.get(start2 + i) & 0xFF;
+            if (b1 != b2) {
+                return b1 - b2;
+            }
+        }
+        return length1 - length2;
+    }
+
+    public boolean startsWith(int id, String prefix) {
+        return startsWith(id, prefix.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean startsWith(int id, byte[] prefix) {
+        checkId(id);
+        int start = offsets[id];
+        if (offsets[id + 1] - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test of ids whose name starts with the prefix, the prefix is encoded once,
+     * i.e. ids.filter(dictionary.prefix("P")).
+     */
+    public IntPredicate prefix(String prefix) {
+        byte[] encoded = prefix.getBytes(StandardCharsets.UTF_8);
+        return id -> startsWith(id, encoded);
+    }
+
+    /**
+     * Id of the upper cased name (interned if needed). A name which is upper case already maps to itself.
+     */
+    public int toUpperCase(int id) {
+        checkId(id);
+        int upperId = upperIds[id];
+        if (upperId == UNKNOWN) {
+            upperId = upperCase(id);
+            upperIds[id] = upperId;
+            // an upper cased name is its own upper case
+            upperIds[upperId] = upperId;
+        }
+        return upperId;
+    }
+
+    private int upperCase(int id) {
+        int start = offsets[id];
+        int length = offsets[id + 1] - start;
+        byte[] upper = new byte[length];
+        boolean changed = false;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes.get(start + i);
+            if (b < 0) {
+                // not ASCII, leave the rules to String
+                String name = name(id);
+                String upperName = name.toUpperCase(Locale.ROOT);
+                return upperName.equals(name) ? id : intern(upperName);
+            }
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+                changed = true;
+            }
+            upper[i] = b;
+        }
+        return changed ? intern(upper, 0, length) : id;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bigos.other;
+
+import java.util.stream.Collector;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Mutable result container summing the ages and concatenating the names of persons.
+ *
+ * It replaces reduce(new Person("", 0), (p1, p2) -> { p1.age += p2.age; p1.name += p2.name; return p1; }),
+ * which is wrong in two ways:
+ * - it mutates the identity, which in a parallel stream is shared by all threads, so the result is garbage,
+ * - name += copies the whole name accumulated so far for every person, so it is O(n^2).
+ *
+ * Here every thread gets its own PersonAggregate (collect creates one per split), names are appended
+ * to a StringBuilder and the aggregates of two splits are combined left + right, so the result is the same
+ * for sequential and parallel streams.
+ *
+ * Usage:
+ * Person sum = persons.parallelStream().collect(PersonAggregate.summing());
+ */
+public class PersonAggregate {
+
+    private long ageSum;
+    private final StringBuilder names = new StringBuilder();
+
+    public void accept(Person person) {
+        ageSum += person.age;
+        names.append(person.name);
+    }
+
+    /**
+     * Appends other (the aggregate of the elements following this one) to this aggregate.
+     */
+    public PersonAggregate combine(PersonAggregate other) {
+        ageSum += other.ageSum;
+        names.append(other.names);
+        return this;
+    }
+
+    public long ageSum() {
+        return ageSum;
+    }
+
+    public String names() {
+        return names.toString();
+    }
+
+    /**
+     * @throws ArithmeticException if the sum of ages does not fit into Person.age
+     */
+    public Person toPerson() {
+        return new Person(names(), Math.toIntExact(ageSum));
+    }
+
+    public static Collector<Person, PersonAggregate, PersonAggregate> aggregating() {
+        return Collector.of(PersonAggregate::new, PersonAggregate::accept, PersonAggregate::combine,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public static Collector<Person, PersonAggregate, Person> summing() {
+        return Collector.of(PersonAggregate::new, PersonAggregate::accept, PersonAggregate::combine,
+                PersonAggregate::toPerson);
+    }
+
+    @Override
+    public String toString() {
+        return "names: " + names + " age sum: " + ageSum;
+    }
+}
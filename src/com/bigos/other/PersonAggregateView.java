@@ -0,0 +1,209 @@
+package com.bigos.other;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Aggregates of a changing set of persons, kept up to date on every change instead of being recomputed
+ * from the whole list (as averagingInt, groupingBy(p -> p.age) and reduce for the oldest person in
+ * StreamLearning do).
+ *
+ * - count, sum and average of ages: LongAdders, O(1) to update, O(number of cells) to read,
+ * - persons per age: a ConcurrentSkipListMap from age to a concurrent set of persons, so the youngest
+ *   and the oldest person are found in O(log n) and the members of an age group are available directly.
+ *
+ * Writers may run concurrently. Changes to the groups of an age are guarded by one of STRIPES locks,
+ * chosen by the age, so writers of different ages rarely wait for each other; a change of age locks both
+ * the old and the new stripe (always in the order of stripe indexes, so there is no deadlock).
+ * Readers take no locks. Under concurrent writes count and sum are read separately, so an average can
+ * mix two states; every single value is exact once the writers are done.
+ *
+ * Persons are compared by identity (Person does not override equals). The age of a person in the view
+ * must be changed through updateAge, not by assigning person.age.
+ */
+public class PersonAggregateView {
+
+    private static final int STRIPES = 64;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder ageSum = new LongAdder();
+    private final ConcurrentSkipListMap<Integer, Set<Person>> byAge = new ConcurrentSkipListMap<>();
+    private final Object[] locks = new Object[STRIPES];
+
+    public PersonAggregateView() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return false if the person is already in the view
+     */
+    public boolean add(Person person) {
+        while (true) {
+            int age = person.age;
+            synchronized (lockFor(age)) {
+                if (person.age != age) {
+                    // the age has been changed concurrently, lock the stripe of the new age
+                    continue;
+                }
+                if (!byAge.computeIfAbsent(age, a -> ConcurrentHashMap.newKeySet()).add(person)) {
+                    return false;
+                }
+                count.increment();
+                ageSum.add(age);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return false if the person is not in the view
+     */
+    public boolean remove(Person person) {
+        while (true) {
+            int age = person.age;
+            synchronized (lockFor(age)) {
+                if (person.age != age) {
+                    continue;
+                }
+                if (!removeFromGroup(person, age)) {
+                    return false;
+                }
+                count.decrement();
+                ageSum.add(-age);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Sets person.age to newAge and moves the person to the group of the new age.
+     *
+     * @return false if the person is not in the view (its age is changed anyway)
+     */
+    public boolean updateAge(Person person, int newAge) {
+        while (true) {
+            int oldAge = person.age;
+            int oldStripe = stripe(oldAge);
+            int newStripe = stripe(newAge);
+            // stripes are always locked in the order of their indexes; both ages may share a stripe
+            synchronized (locks[Math.min(oldStripe, newStripe)]) {
+                synchronized (locks[Math.max(oldStripe, newStripe)]) {
+                    if (person.age != oldAge) {
+                        continue;
+                    }
+                    if (!removeFromGroup(person, oldAge)) {
+                        person.age = newAge;
+                        return false;
+                    }
+                    person.age = newAge;
+                    byAge.computeIfAbsent(newAge, a -> ConcurrentHashMap.newKeySet()).add(person);
+                    ageSum.add((long) newAge - oldAge);
+                    return true;
+                }
+            }
+        }
+    }
+
+    // must be called holding the lock of the age
+    private boolean removeFromGroup(Person person, int age) {
+        Set<Person> group = byAge.get(age);
+        if (group == null || !group.remove(person)) {
+            return false;
+        }
+        if (group.isEmpty()) {
+            byAge.remove(age);
+        }
+        return true;
+    }
+
+    private Object lockFor(int age) {
+        return locks[stripe(age)];
+    }
+
+    private static int stripe(int age) {
+        int h = age * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sumOfAges() {
+        return ageSum.sum();
+    }
+
+    /**
+     * Average age, 0.0 when there are no persons (as Collectors.averagingInt).
+     */
+    public double averageAge() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) ageSum.sum() / n;
+    }
+
+    public OptionalInt minAge() {
+        return firstNonEmpty(byAge.entrySet().iterator());
+    }
+
+    public OptionalInt maxAge() {
+        return firstNonEmpty(byAge.descendingMap().entrySet().iterator());
+    }
+
+    /**
+     * One of the oldest persons, the same as reduce((p1, p2) -> p1.age > p2.age ? p1 : p2) up to ties.
+     */
+    public Optional<Person> oldest() {
+        for (Set<Person> group : byAge.descendingMap().values()) {
+            Iterator<Person> persons = group.iterator();
+            if (persons.hasNext()) {
+                return Optional.of(persons.next());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Live, read-only view of the persons of the given age.
+     */
+    public Set<Person> personsWithAge(int age) {
+        Set<Person> group = byAge.get(age);
+        return group == null ? Collections.emptySet() : Collections.unmodifiableSet(group);
+    }
+
+    /**
+     * Snapshot of the number of persons per age, ordered by age.
+     */
+    public Map<Integer, Long> countByAge() {
+        Map<Integer, Long> result = new LinkedHashMap<>();
+        byAge.forEach((age, group) -> {
+            int size = group.size();
+            if (size > 0) {
+                result.put(age, (long) size);
+            }
+        });
+        return result;
+    }
+
+    // a group may be empty for a moment, between removing its last person and removing the group
+    private static OptionalInt firstNonEmpty(Iterator<Map.Entry<Integer, Set<Person>>> groups) {
+        while (groups.hasNext()) {
+            Map.Entry<Integer, Set<Person>> group = groups.next();
+            if (!group.getValue().isEmpty()) {
+                return OptionalInt.of(group.getKey());
+            }
+        }
+        return OptionalInt.empty();
+    }
+}
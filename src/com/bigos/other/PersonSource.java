@@ -0,0 +1,266 @@
+package com.bigos.other;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Stream of persons read from a memory-mapped CSV file with one "name,age" record per line
+ * (UTF-8, "\n" or "\r\n" line endings, no header), i.e.:
+ * Max,14
+ * Paul,24
+ *
+ * The file is mapped with FileChannel.map - in segments of at most MAX_SEGMENT_SIZE bytes, as a single
+ * mapping can not exceed 2GB - and every segment ends at a record boundary. The spliterator splits a
+ * range of bytes in the middle and moves the split point to the next line break, so parallel streams
+ * get evenly sized pieces without scanning the file upfront. Ages are parsed straight from the bytes,
+ * only the name of a record becomes a String.
+ *
+ * Usage:
+ * try (PersonSource source = PersonSource.open(Paths.get("persons.csv"))) {
+ *     Map<Integer, List<Person>> byAge = source.stream(true).collect(Collectors.groupingBy(p -> p.age));
+ * }
+ *
+ * Streams must not be used after the source is closed.
+ */
+public class PersonSource implements AutoCloseable {
+
+    static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    // below this number of bytes a range is not split any more
+    private static final int MIN_SPLIT_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final List<ByteBuffer> segments;
+
+    private PersonSource(FileChannel channel, List<ByteBuffer> segments) {
+        this.channel = channel;
+        this.segments = segments;
+    }
+
+    public static PersonSource open(Path file) throws IOException {
+        return open(file, MAX_SEGMENT_SIZE);
+    }
+
+    static PersonSource open(Path file, int maxSegmentSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            List<ByteBuffer> segments = new ArrayList<>();
+            long start = 0;
+            while (start < fileSize) {
+                long size = Math.min(maxSegmentSize, fileSize - start);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+                if (start + size < fileSize) {
+                    // cut the segment after its last line break, the rest goes to the next segment
+                    int end = (int) size;
+                    while (end > 0 && buffer.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IOException("record longer than " + maxSegmentSize + " bytes at offset " + start);
+                    }
+                    size = end;
+                    buffer.limit(end);
+                }
+                segments.add(buffer.slice());
+                start += size;
+            }
+            return new PersonSource(channel, segments);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Stream<Person> stream() {
+        return stream(false);
+    }
+
+    public Stream<Person> stream(boolean parallel) {
+        List<RecordSpliterator> parts = new ArrayList<>(segments.size());
+        for (ByteBuffer segment : segments) {
+            parts.add(new RecordSpliterator(segment.duplicate(), 0, segment.limit()));
+        }
+        return StreamSupport.stream(new SegmentsSpliterator(parts), parallel);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Spliterator over the records in bytes [position, end) of a single segment.
+     * Both bounds are always at the start of a record (or at the end of the segment).
+     */
+    static final class RecordSpliterator implements Spliterator<Person> {
+
+        private final ByteBuffer buffer;
+        private int position;
+        private final int end;
+
+        RecordSpliterator(ByteBuffer buffer, int position, int end) {
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action) {
+            // skip empty lines
+            while (position < end && isLineBreak(buffer.get(position))) {
+                position++;
+            }
+            if (position >= end) {
+                return false;
+            }
+            action.accept(parse());
+            return true;
+        }
+
+        private Person parse() {
+            int nameStart = position;
+            int comma = nameStart;
+            while (comma < end && buffer.get(comma) != ',') {
+                if (buffer.get(comma) == '\n') {
+                    throw new IllegalStateException("missing ',' in record at byte " + nameStart);
+                }
+                comma++;
+            }
+            if (comma == end) {
+                throw new IllegalStateException("missing ',' in record at byte " + nameStart);
+            }
+            byte[] name = new byte[comma - nameStart];
+            for (int i = 0; i < name.length; i++) {
+                name[i] = buffer.get(nameStart + i);
+            }
+
+            int i = comma + 1;
+            boolean negative = i < end && buffer.get(i) == '-';
+            if (negative) {
+                i++;
+            }
+            int digitsStart = i;
+            int age = 0;
+            while (i < end && !isLineBreak(buffer.get(i))) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalStateException("invalid age in record at byte " + nameStart);
+                }
+                if (age > (Integer.MAX_VALUE - digit) / 10) {
+                    throw new IllegalStateException("age out of range in record at byte " + nameStart);
+                }
+                age = age * 10 + digit;
+                i++;
+            }
+            if (i == digitsStart) {
+                throw new IllegalStateException("missing age in record at byte " + nameStart);
+            }
+            position = i;
+            return new Person(new String(name, StandardCharsets.UTF_8), negative ? -age : age);
+        }
+
+        private static boolean isLineBreak(byte b) {
+            return b == '\n' || b == '\r';
+        }
+
+        @Override
+        public Spliterator<Person> trySplit() {
+            if (end - position < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            int split = position + (end - position) / 2;
+            while (split < end && buffer.get(split - 1) != '\n') {
+                split++;
+            }
+            if (split >= end) {
+                return null;
+            }
+            RecordSpliterator prefix = new RecordSpliterator(buffer, position, split);
+            position = split;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            // in bytes, records are unknown until parsed
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Spliterator over a list of segments. Splits the list in halves until one segment is left,
+     * then splits that segment by records.
+     */
+    static final class SegmentsSpliterator implements Spliterator<Person> {
+
+        private final List<RecordSpliterator> parts;
+        private int index;
+
+        SegmentsSpliterator(List<RecordSpliterator> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action) {
+            while (index < parts.size()) {
+                if (parts.get(index).tryAdvance(action)) {
+                    return true;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Person> action) {
+            for (; index < parts.size(); index++) {
+                parts.get(index).forEachRemaining(action);
+            }
+        }
+
+        @Override
+        public Spliterator<Person> trySplit() {
+            int remaining = parts.size() - index;
+            if (remaining > 1) {
+                int middle = index + remaining / 2;
+                Spliterator<Person> prefix = new SegmentsSpliterator(parts.subList(index, middle));
+                index = middle;
+                return prefix;
+            }
+            return remaining == 1 ? parts.get(index).trySplit() : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (int i = index; i < parts.size(); i++) {
+                size += parts.get(i).estimateSize();
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.bigos.other;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Columnar (struct of arrays) store of persons. Instead of a List<Person>, where every row is an object
+ * with a header and a pointer to a String, ages are kept in an int[] column and names are dictionary
+ * encoded: every distinct name is stored once, off-heap in a NameDictionary, and the name column holds
+ * only its int id. A null name is allowed and counts as a distinct name, as it does in a HashMap.
+ *
+ * Aggregations (sum, average, min, max, count by age) run over the int[] column with IntStream and
+ * never create a Person per row. Their results are the same as the collectors used in StreamLearning:
+ * - averageAge() == persons.stream().collect(Collectors.averagingInt(p -> p.age))
+ * - countByAge()  == persons.stream().collect(Collectors.groupingBy(p -> p.age, Collectors.counting()))
+ *
+ * Not thread-safe for writers. Once filled, a table can be read from many threads (i.e. parallel streams).
+ */
+public class PersonTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // countByAge counts in an array up to this range of ages, or up to the number of rows if that is bigger
+    private static final int MAX_DENSE_RANGE = 1 << 16;
+    // name id of a null name, the dictionary only holds Strings
+    private static final int NULL_NAME = -1;
+
+    private int[] ages;
+    private int[] nameIds;
+    private int size;
+    private boolean nullName;
+
+    private final NameDictionary names = new NameDictionary();
+
+    public PersonTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public PersonTable(int capacity) {
+        ages = new int[Math.max(capacity, 1)];
+        nameIds = new int[Math.max(capacity, 1)];
+    }
+
+    public static PersonTable from(Collection<Person> persons) {
+        PersonTable table = new PersonTable(persons.size());
+        persons.forEach(table::add);
+        return table;
+    }
+
+    public void add(Person person) {
+        add(person.name, person.age);
+    }
+
+    public void add(String name, int age) {
+        if (size == ages.length) {
+            int capacity = size + (size >> 1) + 1;
+            ages = Arrays.copyOf(ages, capacity);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+        }
+        ages[size] = age;
+        if (name == null) {
+            nameIds[size] = NULL_NAME;
+            nullName = true;
+        } else {
+            nameIds[size] = names.intern(name);
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int distinctNames() {
+        return names.size() + (nullName ? 1 : 0);
+    }
+
+    public int age(int row) {
+        checkRow(row);
+        return ages[row];
+    }
+
+    /**
+     * Name of the row, decoded once per distinct name - rows with the same name return the same String.
+     */
+    public String name(int row) {
+        checkRow(row);
+        int id = nameIds[row];
+        return id == NULL_NAME ? null : names.name(id);
+    }
+
+    /**
+     * Materializes a single row. Meant for results (i.e. a few matching rows), not for scanning the table.
+     */
+    public Person person(int row) {
+        return new Person(name(row), age(row));
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+        }
+    }
+
+    // Aggregations
+
+    /**
+     * Age column as a primitive stream. The stream is backed by the column, so it splits evenly in parallel.
+     */
+    public IntStream ages() {
+        return Arrays.stream(ages, 0, size);
+    }
+
+    public long sumOfAges() {
+        return ages().asLongStream().sum();
+    }
+
+    /**
+     * Average age, 0.0 for an empty table (the same as Collectors.averagingInt).
+     */
+    public double averageAge() {
+        return size == 0 ? 0.0 : (double) sumOfAges() / size;
+    }
+
+    public OptionalInt minAge() {
+        return ages().min();
+    }
+
+    public OptionalInt maxAge() {
+        return ages().max();
+    }
+
+    /**
+     * Number of persons per age. Counting is done in an array indexed by (age - minAge) when the range
+     * of ages is small (as it is for real ages), otherwise in an IntLongHashMap - either way only the
+     * resulting map entries are boxed.
+     */
+    public Map<Integer, Long> countByAge() {
+        if (size == 0) {
+            return new HashMap<>();
+        }
+        int min = minAge().getAsInt();
+        long range = (long) maxAge().getAsInt() - min + 1;
+        if (range > MAX_DENSE_RANGE && range > size) {
+            // an array this sparse would be bigger than the column, count in a map sized by the rows instead
+            IntLongHashMap counts = new IntLongHashMap(Math.min(size, MAX_DENSE_RANGE));
+            for (int i = 0; i < size; i++) {
+                counts.addTo(ages[i], 1);
+            }
+            return counts.toMap();
+        }
+        Map<Integer, Long> result = new HashMap<>();
+        long[] counts = new long[(int) range];
+        for (int i = 0; i < size; i++) {
+            counts[ages[i] - min]++;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(i + min, counts[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rows whose name matches the predicate. The predicate is evaluated once per distinct name,
+     * not once per row, i.e. rowsWhereName(n -> n.startsWith("P")).
+     */
+    public IntStream rowsWhereName(Predicate<String> predicate) {
+        return rowsWhereNameId(id -> predicate.test(names.name(id)), nullName && predicate.test(null));
+    }
+
+    /**
+     * Rows whose name starts with the prefix, tested on the encoded names without decoding them,
+     * i.e. rowsWhereNameStartsWith("P") for p.name.startsWith("P"). Rows with a null name do not match.
+     */
+    public IntStream rowsWhereNameStartsWith(String prefix) {
+        return rowsWhereNameId(names.prefix(prefix), false);
+    }
+
+    // the predicate is evaluated once per name id, matching is indexed by id + 1 so that NULL_NAME is 0
+    private IntStream rowsWhereNameId(IntPredicate predicate, boolean nullMatches) {
+        boolean[] matching = new boolean[names.size() + 1];
+        matching[NULL_NAME + 1] = nullMatches;
+        for (int id = 0; id < names.size(); id++) {
+            matching[id + 1] = predicate.test(id);
+        }
+        int[] ids = nameIds;
+        return IntStream.range(0, size).filter(row -> matching[ids[row] + 1]);
+    }
+}
@@ -0,0 +1,130 @@
+package com.bigos.other;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Runs stream pipelines in its own, named and sized ForkJoinPool instead of ForkJoinPool.commonPool().
+ *
+ * A parallel stream runs its tasks in the pool of the thread which started the terminal operation:
+ * when that thread is a ForkJoinWorkerThread, its pool is used, otherwise the common pool. So submitting
+ * the whole pipeline to a dedicated pool keeps it (and only it) on that pool's threads, and CPU can be
+ * partitioned between workloads by giving each its own PipelineExecutor.
+ *
+ * Usage:
+ * try (PipelineExecutor executor = new PipelineExecutor("persons", 2)) {
+ *     List<String> upper = executor.run(() -> myList.parallelStream().map(String::toUpperCase).collect(toList()));
+ *     System.out.println(executor.metrics());
+ * }
+ */
+public class PipelineExecutor implements AutoCloseable {
+
+    private final String name;
+    private final ForkJoinPool pool;
+    // the pool index is assigned only when the worker registers, after the factory returns, so number them here
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    public PipelineExecutor(String name, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.name = name;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + "-worker-" + threadCount.getAndIncrement());
+            return thread;
+        }, null, false);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Runs the pipeline in this executor's pool and waits for its result.
+     * A RuntimeException or Error thrown by the pipeline is rethrown as is.
+     */
+    public <T> T run(Supplier<T> pipeline) {
+        try {
+            return pool.submit(pipeline::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for pipeline in " + name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("pipeline failed in " + name, cause);
+        }
+    }
+
+    public void run(Runnable pipeline) {
+        run(() -> {
+            pipeline.run();
+            return null;
+        });
+    }
+
+    /**
+     * Snapshot of the pool's counters. Values are estimates, as for ForkJoinPool itself.
+     */
+    public Metrics metrics() {
+        return new Metrics(name, pool.getParallelism(), pool.getPoolSize(), pool.getActiveThreadCount(),
+                pool.getRunningThreadCount(), pool.getQueuedTaskCount(), pool.getQueuedSubmissionCount(),
+                pool.getStealCount());
+    }
+
+    /**
+     * Stops accepting new pipelines and waits (up to 1 minute) for the running ones.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class Metrics {
+        public final String name;
+        public final int parallelism;
+        public final int poolSize;
+        public final int activeThreads;
+        public final int runningThreads;
+        public final long queuedTasks;
+        public final int queuedSubmissions;
+        public final long stealCount;
+
+        Metrics(String name, int parallelism, int poolSize, int activeThreads, int runningThreads,
+                long queuedTasks, int queuedSubmissions, long stealCount) {
+            this.name = name;
+            this.parallelism = parallelism;
+            this.poolSize = poolSize;
+            this.activeThreads = activeThreads;
+            this.runningThreads = runningThreads;
+            this.queuedTasks = queuedTasks;
+            this.queuedSubmissions = queuedSubmissions;
+            this.stealCount = stealCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{parallelism=" + parallelism + ", poolSize=" + poolSize
+                    + ", activeThreads=" + activeThreads + ", runningThreads=" + runningThreads
+                    + ", queuedTasks=" + queuedTasks + ", queuedSubmissions=" + queuedSubmissions
+                    + ", stealCount=" + stealCount + '}';
+        }
+    }
+}
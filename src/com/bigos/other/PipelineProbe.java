@@ -0,0 +1,237 @@
+package com.bigos.other;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Counters for the stages of a stream pipeline, a replacement for System.out.printf inside filter / map /
+ * forEach. Printing serializes the threads of a parallel stream on System.out (and is far slower than the
+ * stage itself), so the printed pipeline is not the pipeline you wanted to look at.
+ *
+ * Every stage is wrapped with a named probe which records:
+ * - elements in and out (out < in for filter, so the selectivity is visible),
+ * - nanos spent in the stage and a log2 histogram of the time of a single call,
+ * - the number of calls per thread - how the work was distributed in a parallel stream.
+ * Counters are LongAdders and the histogram is an AtomicLongArray, nothing is locked per element.
+ * What is left is two System.nanoTime() calls per element (some tens of nanos), so wrap the stages you
+ * are interested in, not a tight loop over primitives.
+ *
+ * A combiner (of reduce or of a collector) is a stage too, its "in" is the number of invocations.
+ *
+ * Usage:
+ * PipelineProbe probe = new PipelineProbe();
+ * list.parallelStream()
+ *         .filter(probe.filter("filter", s -> s.startsWith("a")))
+ *         .map(probe.map("map", String::toUpperCase))
+ *         .forEach(probe.forEach("forEach", System.out::println));
+ * System.out.println(probe.report());
+ */
+public class PipelineProbe {
+
+    // stages in the order of creation, which is the order of the pipeline
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    /**
+     * Probe of the given name, created on first use. Wrapping two stages with the same name adds them up.
+     */
+    public synchronized Stage stage(String name) {
+        return stages.computeIfAbsent(name, Stage::new);
+    }
+
+    public <T> Predicate<T> filter(String name, Predicate<T> predicate) {
+        Stage stage = stage(name);
+        return element -> {
+            long start = System.nanoTime();
+            boolean result = predicate.test(element);
+            stage.record(start, result ? 1 : 0);
+            return result;
+        };
+    }
+
+    public <T, R> Function<T, R> map(String name, Function<T, R> mapper) {
+        Stage stage = stage(name);
+        return element -> {
+            long start = System.nanoTime();
+            R result = mapper.apply(element);
+            stage.record(start, 1);
+            return result;
+        };
+    }
+
+    public <T> Consumer<T> forEach(String name, Consumer<T> action) {
+        Stage stage = stage(name);
+        return element -> {
+            long start = System.nanoTime();
+            action.accept(element);
+            stage.record(start, 0);
+        };
+    }
+
+    /**
+     * Accumulator of reduce(identity, accumulator, combiner).
+     */
+    public <U, T> BiFunction<U, T, U> accumulator(String name, BiFunction<U, T, U> accumulator) {
+        Stage stage = stage(name);
+        return (partial, element) -> {
+            long start = System.nanoTime();
+            U result = accumulator.apply(partial, element);
+            stage.record(start, 1);
+            return result;
+        };
+    }
+
+    /**
+     * Combiner of reduce or of a collector. Called only in parallel streams, once per joined pair of splits.
+     */
+    public <U> BinaryOperator<U> combiner(String name, BinaryOperator<U> combiner) {
+        Stage stage = stage(name);
+        return (left, right) -> {
+            long start = System.nanoTime();
+            U result = combiner.apply(left, right);
+            stage.record(start, 1);
+            return result;
+        };
+    }
+
+    public synchronized List<Stage> stages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    public synchronized void reset() {
+        stages.values().forEach(Stage::reset);
+    }
+
+    /**
+     * One line per stage, i.e.:
+     * filter   in: 5, out: 2, total: 0.1 ms, avg: 12345 ns, p50 <= 8192 ns, p99 <= 65536 ns, threads: {main=3, ...}
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (Stage stage : stages()) {
+            report.append(stage).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Counters of a single stage. Safe to update from many threads, values read while the pipeline is
+     * running are a snapshot which may be off by the calls in progress.
+     */
+    public static final class Stage {
+
+        // bucket i counts calls which took [2^(i-1), 2^i) nanos, bucket 0 the calls under 1 nano
+        private static final int BUCKETS = 64;
+
+        private final String name;
+        private final LongAdder in = new LongAdder();
+        private final LongAdder out = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final ConcurrentHashMap<String, LongAdder> perThread = new ConcurrentHashMap<>();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void record(long start, int produced) {
+            long elapsed = Math.max(System.nanoTime() - start, 0);
+            in.increment();
+            if (produced != 0) {
+                out.add(produced);
+            }
+            nanos.add(elapsed);
+            histogram.incrementAndGet(64 - Long.numberOfLeadingZeros(elapsed));
+            String thread = Thread.currentThread().getName();
+            // get first: ConcurrentHashMap.computeIfAbsent locks the bin even if the key is present (Java 8)
+            LongAdder calls = perThread.get(thread);
+            if (calls == null) {
+                calls = perThread.computeIfAbsent(thread, t -> new LongAdder());
+            }
+            calls.increment();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long in() {
+            return in.sum();
+        }
+
+        public long out() {
+            return out.sum();
+        }
+
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * Upper bound (a power of two) of the time of a single call for the given quantile, 0 without calls.
+         */
+        public long quantileNanos(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("quantile must be in [0, 1]: " + quantile);
+            }
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(quantile * total), 1);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        /**
+         * Number of calls per thread name, sorted by name.
+         */
+        public Map<String, Long> callsPerThread() {
+            Map<String, Long> calls = new TreeMap<>();
+            perThread.forEach((thread, count) -> calls.put(thread, count.sum()));
+            return calls;
+        }
+
+        void reset() {
+            in.reset();
+            out.reset();
+            nanos.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+            perThread.clear();
+        }
+
+        @Override
+        public String toString() {
+            long calls = in();
+            long total = nanos();
+            return String.format("%-12s in: %d, out: %d, total: %.3f ms, avg: %d ns, p50 <= %d ns, p99 <= %d ns, threads: %s",
+                    name, calls, out(), total / 1e6, calls == 0 ? 0 : total / calls,
+                    quantileNanos(0.5), quantileNanos(0.99), callsPerThread());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.bigos.other;
+
+import java.util.Arrays;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Sorting of int[] and long[] which picks the algorithm by the size of the array and the range of its values:
+ * - PARALLEL_THRESHOLD or more elements on a machine with more than one core: Arrays.parallelSort,
+ * - otherwise LSD radix sort, 8 bits per pass, when it pays off: values are sorted as offsets from the minimum
+ *   and only as many passes are made as there are bytes in (max - min) - i.e. ages need a single pass -
+ *   so the radix sort is used from RADIX_THRESHOLD_PER_PASS * passes elements up,
+ * - Arrays.sort (dual-pivot quicksort) for anything smaller.
+ *
+ * The radix sort thresholds come from SortBenchmark (single core: radix sort is ~2x faster than Arrays.sort
+ * on 1 000 random ints and ~5x on 1 000 000, on ages it wins already at 100 elements); run it on the target
+ * hardware to check the crossover points.
+ *
+ * PARALLEL_THRESHOLD is not measured - SortBenchmark has only been run on a single core, where
+ * Arrays.parallelSort is never picked. The default of 2M elements is a guess; set the system property
+ * com.bigos.other.PrimitiveSort.parallelThreshold to the crossover SortBenchmark finds on the target
+ * multi-core hardware.
+ */
+public final class PrimitiveSort {
+
+    static final int RADIX_THRESHOLD_PER_PASS = 128;
+    // a guess, see the class comment
+    static final int PARALLEL_THRESHOLD = Integer.getInteger("com.bigos.other.PrimitiveSort.parallelThreshold",
+            1 << 21);
+
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+
+    private PrimitiveSort() {
+    }
+
+    public static void sort(int[] a) {
+        if (a.length < RADIX_THRESHOLD_PER_PASS) {
+            Arrays.sort(a);
+            return;
+        }
+        if (a.length >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+            Arrays.parallelSort(a);
+            return;
+        }
+        int min = min(a);
+        int passes = passes(min, max(a));
+        if (a.length < RADIX_THRESHOLD_PER_PASS * passes) {
+            Arrays.sort(a);
+        } else {
+            radixSort(a, min, passes);
+        }
+    }
+
+    public static void sort(long[] a) {
+        if (a.length < RADIX_THRESHOLD_PER_PASS) {
+            Arrays.sort(a);
+            return;
+        }
+        if (a.length >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+            Arrays.parallelSort(a);
+            return;
+        }
+        long min = min(a);
+        int passes = passes(min, max(a));
+        if (a.length < RADIX_THRESHOLD_PER_PASS * passes) {
+            Arrays.sort(a);
+        } else {
+            radixSort(a, min, passes);
+        }
+    }
+
+    /**
+     * Sorted copy of values as an IntList - the primitive replacement of
+     * Arrays.stream(sorted).boxed().collect(Collectors.toList()).
+     */
+    public static IntList sortedList(int... values) {
+        int[] copy = values.clone();
+        sort(copy);
+        return IntList.wrap(copy);
+    }
+
+    static void radixSort(int[] a) {
+        if (a.length < 2) {
+            return;
+        }
+        int min = min(a);
+        radixSort(a, min, passes(min, max(a)));
+    }
+
+    private static void radixSort(int[] a, int min, int passes) {
+        if (passes == 0) {
+            // all values are equal
+            return;
+        }
+        int[] from = a;
+        int[] to = new int[a.length];
+        int[] counts = new int[BUCKETS];
+        for (int pass = 0, shift = 0; pass < passes; pass++, shift += BITS) {
+            Arrays.fill(counts, 0);
+            for (int value : from) {
+                counts[((value - min) >>> shift) & MASK]++;
+            }
+            for (int i = 0, start = 0; i < BUCKETS; i++) {
+                int count = counts[i];
+                counts[i] = start;
+                start += count;
+            }
+            for (int value : from) {
+                to[counts[((value - min) >>> shift) & MASK]++] = value;
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != a) {
+            System.arraycopy(from, 0, a, 0, a.length);
+        }
+    }
+
+    static void radixSort(long[] a) {
+        if (a.length < 2) {
+            return;
+        }
+        long min = min(a);
+        radixSort(a, min, passes(min, max(a)));
+    }
+
+    private static void radixSort(long[] a, long min, int passes) {
+        if (passes == 0) {
+            // all values are equal
+            return;
+        }
+        long[] from = a;
+        long[] to = new long[a.length];
+        int[] counts = new int[BUCKETS];
+        for (int pass = 0, shift = 0; pass < passes; pass++, shift += BITS) {
+            Arrays.fill(counts, 0);
+            for (long value : from) {
+                counts[(int) ((value - min) >>> shift) & MASK]++;
+            }
+            for (int i = 0, start = 0; i < BUCKETS; i++) {
+                int count = counts[i];
+                counts[i] = start;
+                start += count;
+            }
+            for (long value : from) {
+                to[counts[(int) ((value - min) >>> shift) & MASK]++] = value;
+            }
+            long[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != a) {
+            System.arraycopy(from, 0, a, 0, a.length);
+        }
+    }
+
+    // number of BITS wide digits in (max - min), taken as an unsigned number
+    private static int passes(int min, int max) {
+        return (32 - Integer.numberOfLeadingZeros(max - min) + BITS - 1) / BITS;
+    }
+
+    private static int passes(long min, long max) {
+        return (64 - Long.numberOfLeadingZeros(max - min) + BITS - 1) / BITS;
+    }
+
+    private static int min(int[] a) {
+        int min = a[0];
+        for (int value : a) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static int max(int[] a) {
+        int max = a[0];
+        for (int value : a) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static long min(long[] a) {
+        long min = a[0];
+        for (long value : a) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static long max(long[] a) {
+        long max = a[0];
+        for (long value : a) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,284 @@
+package com.bigos.other;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Reads records written by RecordWriter straight from a ByteBuffer (i.e. a memory-mapped file).
+ *
+ * Records are exposed through flyweight views: next() moves the reader to the following record and
+ * person() / foo() return the same view object every time, pointing at the bytes of the current record.
+ * Nothing is copied until a String is asked for (name(), barName(i)) or an object is built (toPerson(),
+ * toFoo()), so scanning for i.e. all ages or counting bars allocates nothing per record.
+ * A view is valid only until the next call to next().
+ *
+ * Usage:
+ * RecordReader reader = RecordReader.map(path);
+ * while (reader.next()) {
+ *     if (reader.isPerson()) { sum += reader.person().age(); }
+ * }
+ *
+ * or, to feed the flatMap example of StreamLearning1:
+ * RecordReader.map(path).foos().flatMap(f -> f.bars.stream()).forEach(System.out::println);
+ */
+public class RecordReader {
+
+    private final ByteBuffer buffer;
+    private int position;
+    private byte type;
+    private int varIntEnd;
+
+    private final PersonView person = new PersonView();
+    private final FooView foo = new FooView();
+
+    public RecordReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    /**
+     * Maps the whole file into memory. The mapping stays valid after the channel is closed.
+     *
+     * A ByteBuffer can not address more than 2GB, and a record may start anywhere, so unlike the CSV of
+     * PersonSource the file can not be mapped in segments without reading it first.
+     *
+     * @throws IOException also when the file is larger than 2GB - write such data into several files
+     */
+    public static RecordReader map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("file larger than 2GB, split it into several files: " + file);
+            }
+            return new RecordReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false when there are no more records
+     */
+    public boolean next() {
+        if (position >= buffer.limit()) {
+            type = 0;
+            return false;
+        }
+        type = buffer.get(position);
+        if (type == RecordWriter.PERSON) {
+            position = person.wrap(position + 1);
+        } else if (type == RecordWriter.FOO) {
+            position = foo.wrap(position + 1);
+        } else {
+            throw new IllegalStateException("unknown record type " + type + " at byte " + position);
+        }
+        return true;
+    }
+
+    public boolean isPerson() {
+        return type == RecordWriter.PERSON;
+    }
+
+    public boolean isFoo() {
+        return type == RecordWriter.FOO;
+    }
+
+    public PersonView person() {
+        if (!isPerson()) {
+            throw new IllegalStateException("current record is not a person");
+        }
+        return person;
+    }
+
+    public FooView foo() {
+        if (!isFoo()) {
+            throw new IllegalStateException("current record is not a foo");
+        }
+        return foo;
+    }
+
+    /**
+     * Persons from the remaining records, other records are skipped.
+     */
+    public Stream<Person> persons() {
+        return stream(RecordWriter.PERSON, person::toPerson);
+    }
+
+    /**
+     * Foos (with bars) from the remaining records, other records are skipped.
+     */
+    public Stream<Foo> foos() {
+        return stream(RecordWriter.FOO, foo::toFoo);
+    }
+
+    // An object built from every record of the given type. Records are variable-length, so there is no way
+    // to split without reading - the stream is sequential. A parallel stream splits it by buffering the
+    // elements in batches, so every element is built in next(), while the views still point at its record.
+    private <T> Stream<T> stream(byte recordType, Supplier<T> current) {
+        Iterator<T> iterator = new Iterator<T>() {
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                while (!ready && RecordReader.this.next()) {
+                    ready = type == recordType;
+                }
+                return ready;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return current.get();
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // reads the varint at index, the index right after it is left in varIntEnd
+    private int readVarInt(int index) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalStateException("malformed varint at byte " + index);
+            }
+            b = buffer.get(index++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        varIntEnd = index;
+        return value;
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean startsWith(int offset, int length, byte[] prefix) {
+        if (prefix.length > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Flyweight view of the current person record.
+     */
+    public final class PersonView {
+        private int nameOffset;
+        private int nameLength;
+        private int age;
+
+        private PersonView() {
+        }
+
+        int wrap(int index) {
+            nameLength = readVarInt(index);
+            nameOffset = varIntEnd;
+            int zigzag = readVarInt(nameOffset + nameLength);
+            age = (zigzag >>> 1) ^ -(zigzag & 1);
+            return varIntEnd;
+        }
+
+        public int age() {
+            return age;
+        }
+
+        public String name() {
+            return decode(nameOffset, nameLength);
+        }
+
+        /**
+         * Compares the encoded name with the UTF-8 encoded prefix, without decoding the name.
+         */
+        public boolean nameStartsWith(byte[] utf8Prefix) {
+            return startsWith(nameOffset, nameLength, utf8Prefix);
+        }
+
+        public Person toPerson() {
+            return new Person(name(), age);
+        }
+    }
+
+    /**
+     * Flyweight view of the current foo record and its bars.
+     */
+    public final class FooView {
+        private int nameOffset;
+        private int nameLength;
+        private int barCount;
+        // offset and length of every bar name, reused between records
+        private int[] barOffsets = new int[8];
+        private int[] barLengths = new int[8];
+
+        private FooView() {
+        }
+
+        int wrap(int index) {
+            nameLength = readVarInt(index);
+            nameOffset = varIntEnd;
+            barCount = readVarInt(nameOffset + nameLength);
+            if (barCount > barOffsets.length) {
+                barOffsets = Arrays.copyOf(barOffsets, Math.max(barCount, barOffsets.length * 2));
+                barLengths = Arrays.copyOf(barLengths, barOffsets.length);
+            }
+            int next = varIntEnd;
+            for (int i = 0; i < barCount; i++) {
+                barLengths[i] = readVarInt(next);
+                barOffsets[i] = varIntEnd;
+                next = varIntEnd + barLengths[i];
+            }
+            return next;
+        }
+
+        public String name() {
+            return decode(nameOffset, nameLength);
+        }
+
+        public int barCount() {
+            return barCount;
+        }
+
+        public String barName(int bar) {
+            if (bar < 0 || bar >= barCount) {
+                throw new IndexOutOfBoundsException("bar: " + bar + ", bars: " + barCount);
+            }
+            return decode(barOffsets[bar], barLengths[bar]);
+        }
+
+        public Foo toFoo() {
+            Foo result = new Foo(name());
+            for (int i = 0; i < barCount; i++) {
+                result.bars.add(new Bar(barName(i)));
+            }
+            return result;
+        }
+    }
+}
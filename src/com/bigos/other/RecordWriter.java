@@ -0,0 +1,70 @@
+package com.bigos.other;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Writes persons and foos (with their bars) in a compact binary format, read back by RecordReader.
+ *
+ * Format - a sequence of records, each starting with a one byte tag:
+ * person: 'P', varint name length, name (UTF-8), zigzag varint age
+ * foo:    'F', varint name length, name (UTF-8), varint number of bars, for every bar: varint name length, name
+ *
+ * Varints use 7 bits per byte, the high bit set means "more bytes follow" (as in protobuf), so ages
+ * take a single byte. Zigzag encoding keeps small negative numbers short as well.
+ */
+public class RecordWriter implements AutoCloseable {
+
+    static final byte PERSON = 'P';
+    static final byte FOO = 'F';
+
+    private final OutputStream out;
+
+    public RecordWriter(OutputStream out) {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 64 * 1024);
+    }
+
+    public static RecordWriter create(Path file) throws IOException {
+        return new RecordWriter(Files.newOutputStream(file));
+    }
+
+    public void writePerson(Person person) throws IOException {
+        out.write(PERSON);
+        writeString(person.name);
+        writeVarInt((person.age << 1) ^ (person.age >> 31));
+    }
+
+    public void writeFoo(Foo foo) throws IOException {
+        out.write(FOO);
+        writeString(foo.name);
+        writeVarInt(foo.bars.size());
+        for (Bar bar : foo.bars) {
+            writeString(bar.name);
+        }
+    }
+
+    private void writeString(String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
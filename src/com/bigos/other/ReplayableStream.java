@@ -0,0 +1,229 @@
+package com.bigos.other;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * Stream which can be consumed many times while its source is evaluated only once.
+ *
+ * A Supplier<Stream<T>> (see "Reusing Streams" in StreamLearning) builds and filters the source again
+ * for every terminal operation. ReplayableStream runs the source once - when the first terminal
+ * operation on one of its streams starts - stores the elements in an array and serves every
+ * following stream from that array.
+ *
+ * Note that the first terminal operation consumes the whole source, even a short-circuiting one
+ * like anyMatch, because all elements are needed for the later ones.
+ *
+ * spilling() keeps at most memoryThreshold elements in memory and writes the rest to a temporary
+ * file (with Java serialization). Streams of a spilling ReplayableStream read that file, so they
+ * should be closed (try-with-resources) if not consumed to the end; close() deletes the file.
+ *
+ * Usage:
+ * ReplayableStream<String> replayable = ReplayableStream.of(() -> Stream.of("d2", "a2", "c").filter(...));
+ * replayable.get().anyMatch(...);
+ * replayable.get().noneMatch(...);     // the source is not filtered again
+ */
+public class ReplayableStream<T> implements Supplier<Stream<T>>, AutoCloseable {
+
+    // number of objects after which the spill stream forgets the objects written so far
+    private static final int RESET_INTERVAL = 1024;
+
+    private final Supplier<? extends Stream<? extends T>> source;
+    private final int memoryThreshold;
+    private final boolean spilling;
+
+    private volatile boolean materialized;
+    private Object[] elements;
+    private Path spillFile;
+    private long spilledCount;
+
+    private ReplayableStream(Supplier<? extends Stream<? extends T>> source, int memoryThreshold, boolean spilling) {
+        this.source = source;
+        this.memoryThreshold = memoryThreshold;
+        this.spilling = spilling;
+    }
+
+    public static <T> ReplayableStream<T> of(Supplier<? extends Stream<? extends T>> source) {
+        return new ReplayableStream<>(source, Integer.MAX_VALUE, false);
+    }
+
+    public static <T extends Serializable> ReplayableStream<T> spilling(Supplier<? extends Stream<? extends T>> source,
+                                                                       int memoryThreshold) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("memoryThreshold must not be negative: " + memoryThreshold);
+        }
+        return new ReplayableStream<>(source, memoryThreshold, true);
+    }
+
+    /**
+     * A new stream over the elements of the source. The source is evaluated lazily, when the first
+     * terminal operation of any stream returned by this method starts.
+     */
+    @Override
+    public Stream<T> get() {
+        if (!spilling) {
+            return StreamSupport.stream(this::memorySpliterator,
+                    Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED, false);
+        }
+        List<SpillIterator> opened = new ArrayList<>(1);
+        return StreamSupport.<T>stream(() -> {
+            SpillIterator iterator = new SpillIterator();
+            opened.add(iterator);
+            return Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }, Spliterator.ORDERED | Spliterator.IMMUTABLE, false).onClose(() -> opened.forEach(SpillIterator::close));
+    }
+
+    private Spliterator<T> memorySpliterator() {
+        materialize();
+        return Spliterators.spliterator(elements, 0, elements.length, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    private synchronized void materialize() {
+        if (materialized) {
+            return;
+        }
+        List<Object> buffer = new ArrayList<>();
+        try (Stream<? extends T> stream = source.get()) {
+            Iterator<? extends T> iterator = stream.iterator();
+            while (iterator.hasNext() && buffer.size() < memoryThreshold) {
+                buffer.add(iterator.next());
+            }
+            if (iterator.hasNext()) {
+                spill(iterator);
+            }
+        }
+        elements = buffer.toArray();
+        materialized = true;
+    }
+
+    private void spill(Iterator<? extends T> iterator) {
+        try {
+            spillFile = Files.createTempFile("replayable-stream", ".spill");
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(spillFile)))) {
+                while (iterator.hasNext()) {
+                    out.writeObject(iterator.next());
+                    if (++spilledCount % RESET_INTERVAL == 0) {
+                        out.reset();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException("can not spill stream elements to " + spillFile, e);
+            discardSpill(failure);
+            throw failure;
+        } catch (Throwable e) {
+            // the source failed - the next stream evaluates it again, from scratch
+            discardSpill(e);
+            throw e;
+        }
+    }
+
+    private void discardSpill(Throwable failure) {
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        spillFile = null;
+        spilledCount = 0;
+    }
+
+    /**
+     * Number of elements of the source. Evaluates the source if it was not evaluated yet.
+     */
+    public long size() {
+        materialize();
+        return elements.length + spilledCount;
+    }
+
+    /**
+     * Deletes the spill file, if any. Streams must not be used after close.
+     */
+    @Override
+    public synchronized void close() {
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Elements kept in memory, then the elements from the spill file.
+     */
+    private final class SpillIterator implements Iterator<T>, AutoCloseable {
+        private int index;
+        private long read;
+        private ObjectInputStream in;
+
+        SpillIterator() {
+            materialize();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < elements.length || read < spilledCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (index < elements.length) {
+                return (T) elements[index++];
+            }
+            try {
+                if (in == null) {
+                    in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(spillFile)));
+                }
+                T element = (T) in.readObject();
+                if (++read == spilledCount) {
+                    close();
+                }
+                return element;
+            } catch (IOException e) {
+                throw new UncheckedIOException("can not read spilled elements from " + spillFile, e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    in = null;
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.bigos.other;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
@@ -118,6 +119,19 @@ public class StreamLearning {
         // anyMatch(Predicate<? super T> predicate) - Returns whether any elements of this stream
         // match the provided predicate
 
+        // The same pipeline moving elements in batches (here of 2) - map runs for a whole batch, then anyMatch.
+        // The result is the same, map may see more elements than in the vertical processing above.
+        boolean anyStartsWithA = BatchedPipeline.from(Arrays.asList("d2", "a2", "c"), 2, 4)
+                .map(s -> {
+                    System.out.println("batched map: " + s);
+                    return s.toUpperCase();
+                })
+                .anyMatch(s -> {
+                    System.out.println("batched anyMatch: " + s);
+                    return s.startsWith("A");
+                });
+        System.out.println("batched anyMatch result: " + anyStartsWithA);
+
         // Intermediate operations orders matter.
         // Order (map -> filter -> foreach)
         // 1 output: map:     d2, filter:  D2,  [map:     a2, filter:  A2, forEach: A2], map:     c, filter:  c
@@ -136,6 +150,21 @@ public class StreamLearning {
             System.out.println("nonematch: " + s);
             return true;
         });
+        // streamSupplier filters the source again for every stream. ReplayableStream evaluates the source once,
+        // on the first terminal operation, and serves later streams from a buffer.
+        ReplayableStream<String> replayableStream = ReplayableStream.of(() -> Stream.of("d2", "a2", "c")
+                .filter(s -> {
+                    System.out.println("replayable filter: " + s);
+                    return s.startsWith("a");
+                }));
+        replayableStream.get().anyMatch(s -> {
+            System.out.println("anymatch: " + s);
+            return true;
+        });
+        replayableStream.get().noneMatch(s -> {
+            System.out.println("nonematch: " + s);
+            return true;
+        });
 
         // Advanced Streams
         System.out.println("<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<Advanced Streams>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>");
@@ -163,6 +192,13 @@ public class StreamLearning {
         // input elements of type  T, grouping elements according to a
         // classification function, and returning the results in a Map
 
+        // group by an int key without boxing every age into an Integer
+        Map<Integer, Long> countOfPersonsByAge = persons
+                .parallelStream()
+                .collect(IntGroupingCollectors.countingByInt(p -> p.age));
+        System.out.println("count of persons by age: " + countOfPersonsByAge);
+
+
         // average age
         Double ageAverage = persons
                 .stream()
@@ -170,6 +206,25 @@ public class StreamLearning {
         System.out.println("average age of persons: " + ageAverage);
         // summarizingInt - gets min, max and average
 
+        // the same aggregations on a columnar store - ages live in an int[], names are dictionary encoded,
+        // so no Person object is touched per row
+        PersonTable personTable = PersonTable.from(persons);
+        System.out.println("average age from person table: " + personTable.averageAge());
+        System.out.println("persons count by age from person table: " + personTable.countByAge());
+        // names starting with "P" - tested on the encoded names in the table's off-heap NameDictionary
+        System.out.println("persons whose name starts with P from person table: " + personTable
+                .rowsWhereNameStartsWith("P")
+                .mapToObj(personTable::person)
+                .collect(Collectors.toList()));
+        // the dictionary alone: distinct names stored once, ids instead of Strings
+        NameDictionary names = new NameDictionary();
+        int[] nameIds = persons.stream().mapToInt(p -> names.intern(p.name)).toArray();
+        System.out.println("upper case names from dictionary: " + Arrays.stream(nameIds)
+                .map(names::toUpperCase)
+                .mapToObj(names::name)
+                .collect(Collectors.toList()));
+
+
         //  Joins all persons into a single string
         String singleStringPersons = persons
                 .stream()
@@ -186,6 +241,12 @@ public class StreamLearning {
                         p -> p.name,
                         (name1, name2) -> name1 + ";" + name2));
         System.out.println("persons to map: " + personsToMap);
+        // the same for a parallel stream over many rows - one shared concurrent map, names of a key are
+        // collected into a list and joined once (in no particular order)
+        Map<Integer, String> personsToConcurrentMap = persons
+                .parallelStream()
+                .collect(ConcurrentMapCollectors.toConcurrentMap(p -> p.age, p -> p.name, ";"));
+        System.out.println("persons to concurrent map: " + personsToConcurrentMap);
 
         // making your own collector - Collector.of(supplier, accumulator, combiner, finisher)
         Collector<Person, StringJoiner, String> pnc = Collector.of(
@@ -199,6 +260,12 @@ public class StreamLearning {
         // and ending with a supplied suffix.
         String personsName = persons.stream().collect(pnc);
         System.out.println(personsName);
+        // StringJoiner.merge copies the whole joined string at every merge of a parallel stream,
+        // ChunkedJoiner only collects references and builds the result once, in a buffer of the exact size
+        String personsNameParallel = persons
+                .parallelStream()
+                .collect(ChunkedJoiner.joining(p -> p.name.toUpperCase(), " | "));
+        System.out.println(personsNameParallel);
 
 
         // REDUCE
@@ -213,15 +280,29 @@ public class StreamLearning {
         // BinaryOperator<T> extends BiFunction<T,T,T> - Represents an operation upon
         // two operands of the same type, producing a result of the same type as the operands.
         // BiFunctions are like Function but accept two arguments.
+        // more than one - the k oldest persons, kept in a heap of k elements instead of sorting the whole stream
+        List<Person> twoOldest = persons
+                .parallelStream()
+                .collect(TopKCollectors.greatest(2, Comparator.comparingInt(p -> p.age)));
+        System.out.println("two oldest persons: " + twoOldest);
+        // median and p99 of age in a single pass, without sorting - a mergeable quantile sketch
+        IntQuantileSketch ageSketch = persons
+                .parallelStream()
+                .collect(IntQuantileSketch.sketching(p -> p.age));
+        System.out.println("median age: " + ageSketch.median() + ", p99 age: " + ageSketch.quantile(0.99));
+
 
         // reduce with identity
+        // Do not mutate the identity: reduce(new Person("", 0), (p1, p2) -> { p1.age += p2.age; ... return p1; })
+        // works by accident in a sequential stream, but in a parallel stream all threads share the same identity
+        // object. Summing ages and concatenating names is a mutable reduction, so use collect with a container -
+        // every split gets its own PersonAggregate and the combiner joins them.
         Person result = persons.stream()
-                .reduce(new Person("", 0), (p1, p2) -> {
-                    p1.age += p2.age;
-                    p1.name += p2.name;
-                    return p1;
-                });
-        System.out.println("reduce with identity - identity is returned as a result: " + result);
+                .collect(PersonAggregate.summing());
+        System.out.println("mutable reduction with collect: " + result);
+        Person resultParallel = persons.parallelStream()
+                .collect(PersonAggregate.summing());
+        System.out.println("mutable reduction with collect in parallel stream: " + resultParallel);
 
         // reduce with combiner
         Integer sumOfAgeOfPersons = persons
@@ -250,6 +331,13 @@ public class StreamLearning {
                 });
         System.out.println("sumOfAgeOfPersonsParallel: " + sumOfAgeOfPersonsParallel);
         // Accumulator is called in parallel stream so the combiner is needed to sum up the separate accumulated values.
+        // The same reduce with counters instead of println - how many times and on which threads both were called
+        PipelineProbe probe = new PipelineProbe();
+        persons
+                .parallelStream()
+                .reduce(0, probe.accumulator("accumulator", (sum, p) -> sum + p.age),
+                        probe.combiner("combiner", (sum1, sum2) -> sum1 + sum2));
+        System.out.print(probe.report());
     }
 }
 
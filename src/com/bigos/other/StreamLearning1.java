@@ -35,6 +35,14 @@ public class StreamLearning1 {
                     .forEach(System.out::println);
         // stream of 2 objects is transformed into stream of 4 objects
 
+        // the same bars from a flattened index - one array of all bars instead of a stream per foo
+        FooBarIndex fooBarIndex = new FooBarIndex(foos);
+        fooBarIndex.bars()
+                .forEach(System.out::println);
+        // and back from a bar to its foo
+        System.out.println("foo of the last bar: " + fooBarIndex.parentOf(fooBarIndex.barCount() - 1).name);
+
+
         // another way of constructing such list and then flat map
         System.out.println("<<<<<<<<<<<<<<<<<<<<<another way of constructing such list>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>");
         IntStream
@@ -73,10 +81,41 @@ public class StreamLearning1 {
                     return a.toUpperCase();
                 })
                 .forEach(a -> System.out.printf("forEach: %s [%s]\n", a, Thread.currentThread().getName()));
+        // The same pipeline with counters instead of printf - printing serializes the threads on System.out.
+        PipelineProbe probe = new PipelineProbe();
+        myList
+                .parallelStream()
+                .filter(probe.filter("filter", a -> a.startsWith("a")))
+                .map(probe.map("map", String::toUpperCase))
+                .forEach(probe.forEach("forEach", a -> { }));
+        System.out.print(probe.report());
+        // 5 cheap elements are not worth forking tasks - with a cost hint (nanos per element) the source
+        // refuses to split and the pipeline runs sequentially, all on the main thread
+        AdaptiveStreams.parallel(myList, 50)
+                .map(String::toUpperCase)
+                .forEach(a -> System.out.printf("adaptive forEach: %s [%s]\n", a, Thread.currentThread().getName()));
         // warning - using sort invokes Arrays.parallelSort()
         // parallelSort - If the length of the specified array is less than the minimum granularity,
         // then it is sorted using the appropriate Arrays.sort method.
 
+        // The same pipeline in a dedicated pool - a parallel stream started from a ForkJoinPool thread
+        // runs in that thread's pool instead of the common pool.
+        System.out.println("<<<<<<<<<<<<<<<<<<<<parallel streams in own pool>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>");
+        try (PipelineExecutor executor = new PipelineExecutor("letters", 2)) {
+            executor.run(() -> myList
+                    .parallelStream()
+                    .filter(a -> {
+                        System.out.printf("filter: %s [%s]\n", a, Thread.currentThread().getName());
+                        return true;
+                    })
+                    .map(a -> {
+                        System.out.printf("map: %s [%s]\n", a, Thread.currentThread().getName());
+                        return a.toUpperCase();
+                    })
+                    .forEach(a -> System.out.printf("forEach: %s [%s]\n", a, Thread.currentThread().getName())));
+            System.out.println(executor.metrics());
+        }
+
     }
 }
 
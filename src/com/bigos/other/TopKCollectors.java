@@ -0,0 +1,71 @@
+package com.bigos.other;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Created by bigos on 2026-10-17.
+ *
+ * "top k" collectors, like the k oldest persons. reduce((p1, p2) -> p1.age > p2.age ? p1 : p2) finds only
+ * the oldest one, and sorted().limit(k) sorts the whole stream for a few elements.
+ *
+ * Every container is a min-heap (PriorityQueue) holding at most k elements: the smallest of the kept ones
+ * is on top and a new element replaces it only if it is greater. Memory is O(k) per container and every
+ * element costs O(log k). In parallel streams the combiner offers the elements of the smaller heap to the
+ * bigger one. Which of equal elements are kept is not specified.
+ *
+ * Usage:
+ * List<Person> oldest = persons.parallelStream()
+ *         .collect(TopKCollectors.greatest(100, Comparator.comparingInt(p -> p.age)));
+ */
+public final class TopKCollectors {
+
+    private TopKCollectors() {
+    }
+
+    /**
+     * The k greatest elements, from the greatest one down.
+     */
+    public static <T> Collector<T, ?, List<T>> greatest(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return Collector.of(
+                () -> new PriorityQueue<T>(Math.max(Math.min(k, 1024), 1), comparator),
+                (heap, t) -> offer(heap, t, k, comparator),
+                (heap1, heap2) -> {
+                    PriorityQueue<T> bigger = heap1.size() >= heap2.size() ? heap1 : heap2;
+                    PriorityQueue<T> smaller = bigger == heap1 ? heap2 : heap1;
+                    for (T t : smaller) {
+                        offer(bigger, t, k, comparator);
+                    }
+                    return bigger;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(Collections.reverseOrder(comparator));
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * The k least elements, from the least one up.
+     */
+    public static <T> Collector<T, ?, List<T>> least(int k, Comparator<? super T> comparator) {
+        return greatest(k, Collections.reverseOrder(comparator));
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T t, int k, Comparator<? super T> comparator) {
+        if (heap.size() < k) {
+            heap.add(t);
+        } else if (k > 0 && comparator.compare(t, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(t);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bigos.lambdas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class FusedExpressionTest {
+
+    // the compiled classes need MethodHandles.Lookup.defineClass of Java 9+
+    private static final boolean COMPILES = !System.getProperty("java.specification.version").startsWith("1.");
+
+    @Test
+    void binaryCalculatorGivesTheSameResultsAsTheComposedLambdas() {
+        BinaryCalculator fused = FusedExpression.of(BinaryCalculators.MULTIPLY)
+                .andThen(x -> x + 1)
+                .andThen(Math::sqrt)
+                .andThen(x -> x * 2)
+                .andThen(BinaryCalculators.MIN, 1)
+                .toBinaryCalculator();
+
+        for (double a = 0; a < 1; a += 0.125) {
+            for (double b = 0; b < 1; b += 0.125) {
+                assertEquals(Math.min(Math.sqrt(a * b + 1) * 2, 1), fused.calculate(a, b));
+            }
+        }
+        assertCompiled(fused);
+    }
+
+    @Test
+    void doubleUnaryOperator() {
+        DoubleUnaryOperator fused = FusedExpression.of((DoubleUnaryOperator) x -> x * x)
+                .andThen(x -> x + 1)
+                .toDoubleUnaryOperator();
+
+        assertEquals(10, fused.applyAsDouble(3));
+        assertCompiled(fused);
+    }
+
+    @Test
+    void functionAndPredicate() {
+        Function<Integer, String> converter = i -> Integer.toString(i);
+        Function<Integer, Integer> length = FusedExpression.ofFunction(converter)
+                .andThenApply((String s) -> s.length())
+                .toFunction();
+        Predicate<Integer> longNumber = FusedExpression.ofFunction(converter)
+                .andThenTest((String s) -> s.length() > 5)
+                .toPredicate();
+
+        assertEquals(7, (int) length.apply(1234567));
+        assertTrue(longNumber.test(1234567));
+        assertFalse(longNumber.test(12));
+        assertCompiled(length);
+        assertCompiled(longNumber);
+    }
+
+    @Test
+    void exceptionOfAStepIsThrownAsItIs() {
+        IllegalArgumentException failure = new IllegalArgumentException("negative");
+        DoubleUnaryOperator fused = FusedExpression.of((DoubleUnaryOperator) x -> x - 1)
+                .andThen(x -> {
+                    if (x < 0) {
+                        throw failure;
+                    }
+                    return x;
+                })
+                .toDoubleUnaryOperator();
+
+        assertEquals(1, fused.applyAsDouble(2));
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> fused.applyAsDouble(0)));
+    }
+
+    @Test
+    void everyExpressionGetsItsOwnClass() {
+        BinaryCalculator add = FusedExpression.of(BinaryCalculators.ADD).toBinaryCalculator();
+        BinaryCalculator multiply = FusedExpression.of(BinaryCalculators.MULTIPLY).toBinaryCalculator();
+
+        assertEquals(5, add.calculate(2, 3));
+        assertEquals(6, multiply.calculate(2, 3));
+        if (COMPILES) {
+            assertFalse(add.getClass() == multiply.getClass());
+        }
+    }
+
+    private static void assertCompiled(Object function) {
+        if (COMPILES) {
+            assertTrue(function.getClass().getName().startsWith(FusedExpression.class.getName() + "$Compiled"),
+                    function.getClass().getName());
+        }
+    }
+}
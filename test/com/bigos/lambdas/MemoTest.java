@@ -0,0 +1,69 @@
+package com.bigos.lambdas;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class MemoTest {
+
+    @Test
+    void computesAValueOncePerKey() {
+        AtomicInteger calls = new AtomicInteger();
+        Memo<String, String> lower = Memo.of(s -> {
+            calls.incrementAndGet();
+            return s.toLowerCase();
+        }, 100);
+
+        assertEquals("abc", lower.apply("ABC"));
+        assertEquals("abc", lower.apply("ABC"));
+        assertEquals(1, calls.get());
+        assertEquals(1, lower.hits());
+        assertEquals(1, lower.misses());
+    }
+
+    @Test
+    void retriesAfterASneakilyThrownCheckedException() {
+        AtomicInteger calls = new AtomicInteger();
+        Memo<String, String> memo = Memo.of(s -> {
+            if (calls.incrementAndGet() == 1) {
+                throw MemoTest.<RuntimeException>sneaky(new IOException("first call fails"));
+            }
+            return s;
+        }, 100);
+
+        assertThrows(IOException.class, () -> memo.apply("key"));
+        // the failed entry must be gone, not left with a future which is never completed
+        assertEquals("key", assertTimeoutPreemptively(Duration.ofSeconds(5), () -> memo.apply("key")));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void rethrowsARuntimeExceptionAndDoesNotCacheIt() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, String> failing = s -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException(s);
+        };
+        Memo<String, String> memo = Memo.of(failing, 100);
+
+        assertThrows(IllegalStateException.class, () -> memo.apply("key"));
+        assertThrows(IllegalStateException.class, () -> memo.apply("key"));
+        assertEquals(2, calls.get());
+        assertEquals(0, memo.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneaky(Throwable e) throws E {
+        throw (E) e;
+    }
+}
@@ -0,0 +1,155 @@
+package com.bigos.lambdas;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class TaskRunnerTest {
+
+    @Test
+    void joinWaitsForAllTasks() throws Exception {
+        AtomicInteger done = new AtomicInteger();
+        try (TaskRunner runner = TaskRunner.platform(4); TaskRunner.Scope scope = runner.open()) {
+            Future<String> result = scope.fork(() -> "result");
+            for (int i = 0; i < 100; i++) {
+                scope.fork(() -> {
+                    sleep(1);
+                    done.incrementAndGet();
+                });
+            }
+            scope.join();
+
+            assertEquals(100, done.get());
+            assertEquals("result", result.get());
+        }
+    }
+
+    @Test
+    void failingFutureHasTheFailureAndTheOthersAreCancelled() throws InterruptedException {
+        IllegalStateException failure = new IllegalStateException("fails");
+        CountDownLatch started = new CountDownLatch(1);
+        try (TaskRunner runner = TaskRunner.platform(2); TaskRunner.Scope scope = runner.open()) {
+            Future<?> sibling = scope.fork(() -> {
+                started.countDown();
+                sleep(TimeUnit.MINUTES.toMillis(1));
+            });
+            Future<String> failing = scope.fork(() -> {
+                await(started);
+                throw failure;
+            });
+
+            ExecutionException joined = assertThrows(ExecutionException.class, scope::join);
+            assertSame(failure, joined.getCause());
+
+            assertFalse(failing.isCancelled());
+            ExecutionException e = assertThrows(ExecutionException.class, failing::get);
+            assertSame(failure, e.getCause());
+            assertTrue(sibling.isCancelled());
+        }
+    }
+
+    @Test
+    void taskForkedAfterAFailureIsNotRun() {
+        AtomicBoolean ran = new AtomicBoolean();
+        try (TaskRunner runner = TaskRunner.platform(2); TaskRunner.Scope scope = runner.open()) {
+            scope.fork(() -> {
+                throw new IllegalStateException("fails");
+            });
+            assertThrows(ExecutionException.class, scope::join);
+
+            Future<?> late = scope.fork(() -> ran.set(true));
+            ExecutionException e = assertThrows(ExecutionException.class, scope::join);
+
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertTrue(late.isCancelled());
+        }
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void joinWaitsUntilCancelledTasksHaveStopped() {
+        AtomicBoolean stopped = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        try (TaskRunner runner = TaskRunner.platform(2); TaskRunner.Scope scope = runner.open()) {
+            scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    // cancelled, but takes a while to clean up
+                    sleep(200);
+                    stopped.set(true);
+                }
+            });
+            scope.fork(() -> {
+                await(started);
+                throw new IllegalStateException("fails");
+            });
+
+            ExecutionException e = assertThrows(ExecutionException.class, scope::join);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertTrue(stopped.get(), "join returned while a cancelled task was still running");
+        }
+    }
+
+    @Test
+    void tasksCancelledBeforeTheyStartDoNotBlockJoin() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        List<Future<?>> queued = new ArrayList<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            // a single thread: the queued tasks can only start after the failing one
+            try (TaskRunner runner = TaskRunner.platform(1); TaskRunner.Scope scope = runner.open()) {
+                scope.fork(() -> {
+                    await(release);
+                    throw new IllegalStateException("fails");
+                });
+                for (int i = 0; i < 1000; i++) {
+                    queued.add(scope.fork(ran::incrementAndGet));
+                }
+                release.countDown();
+
+                assertThrows(ExecutionException.class, scope::join);
+            }
+        });
+        assertEquals(0, ran.get());
+        for (Future<?> future : queued) {
+            assertTrue(future.isCancelled());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
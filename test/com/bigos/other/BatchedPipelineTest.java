@@ -0,0 +1,185 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class BatchedPipelineTest {
+
+    private static final int BATCH_SIZE = 16;
+    private static final int QUEUE_CAPACITY = 4;
+    // the batches in the queue, the one the producer is filling and the one the consumer is working on
+    private static final int MAX_READ_AHEAD = (QUEUE_CAPACITY + 2) * BATCH_SIZE;
+
+    @Test
+    void sameResultsAsStream() {
+        List<Integer> numbers = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+        List<String> collected = new ArrayList<>();
+        BatchedPipeline.from(numbers, BATCH_SIZE, QUEUE_CAPACITY)
+                .filter(i -> i % 7 == 0)
+                .map(i -> "n" + i)
+                .forEach(collected::add);
+
+        assertEquals(numbers.stream().filter(i -> i % 7 == 0).map(i -> "n" + i).collect(Collectors.toList()),
+                collected);
+        assertEquals(5000, BatchedPipeline.from(numbers, BATCH_SIZE, QUEUE_CAPACITY).filter(i -> i % 2 == 0).count());
+        assertTrue(BatchedPipeline.from(numbers, BATCH_SIZE, QUEUE_CAPACITY).allMatch(i -> i >= 0));
+        assertTrue(BatchedPipeline.from(numbers, BATCH_SIZE, QUEUE_CAPACITY).noneMatch(i -> i < 0));
+        assertFalse(BatchedPipeline.from(numbers, BATCH_SIZE, QUEUE_CAPACITY).anyMatch(i -> i < 0));
+        assertEquals(Optional.empty(), BatchedPipeline.from(new ArrayList<Integer>(), BATCH_SIZE, QUEUE_CAPACITY)
+                .findFirst());
+    }
+
+    @Test
+    void shortCircuitStopsTheProducer() throws InterruptedException {
+        CountingSource findFirstSource = new CountingSource(-1);
+        assertEquals(Optional.of(1000), assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> BatchedPipeline.from(findFirstSource, BATCH_SIZE, QUEUE_CAPACITY)
+                        .filter(i -> i >= 1000)
+                        .findFirst()));
+        assertStopped(findFirstSource, 1000);
+
+        CountingSource anyMatchSource = new CountingSource(-1);
+        assertTrue(assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> BatchedPipeline.from(anyMatchSource, BATCH_SIZE, QUEUE_CAPACITY)
+                        .map(i -> i * 2)
+                        .anyMatch(i -> i == 100)));
+        assertStopped(anyMatchSource, 50);
+    }
+
+    @Test
+    void slowConsumerBlocksTheProducer() throws InterruptedException {
+        CountingSource source = new CountingSource(10_000);
+        int[] readWhileBlocked = new int[1];
+        long[] sum = new long[1];
+
+        BatchedPipeline.from(source, BATCH_SIZE, QUEUE_CAPACITY).forEach(i -> {
+            if (i == 0) {
+                sleep(500);
+                readWhileBlocked[0] = source.read.get();
+            }
+            sum[0] += i;
+        });
+
+        assertTrue(readWhileBlocked[0] <= MAX_READ_AHEAD, "read ahead " + readWhileBlocked[0]);
+        assertEquals(10_000, source.read.get());
+        assertEquals(10_000L * 9_999 / 2, sum[0]);
+    }
+
+    @Test
+    void sourceFailuresArePropagatedUnchanged() {
+        IllegalArgumentException runtime = new IllegalArgumentException("bad element");
+        assertSame(runtime, assertThrows(IllegalArgumentException.class,
+                () -> BatchedPipeline.from(new FailingSource(100, runtime), BATCH_SIZE, QUEUE_CAPACITY).count()));
+
+        AssertionError error = new AssertionError("broken source");
+        assertSame(error, assertThrows(AssertionError.class,
+                () -> BatchedPipeline.from(new FailingSource(100, error), BATCH_SIZE, QUEUE_CAPACITY).count()));
+
+        IOException checked = new IOException("can not read");
+        IllegalStateException wrapped = assertThrows(IllegalStateException.class,
+                () -> BatchedPipeline.from(new FailingSource(100, checked), BATCH_SIZE, QUEUE_CAPACITY).count());
+        assertSame(checked, wrapped.getCause());
+    }
+
+    @Test
+    void stageFailureStopsTheProducer() throws InterruptedException {
+        CountingSource source = new CountingSource(-1);
+        UnsupportedOperationException failure = new UnsupportedOperationException("stage failed");
+
+        assertSame(failure, assertThrows(UnsupportedOperationException.class,
+                () -> BatchedPipeline.from(source, BATCH_SIZE, QUEUE_CAPACITY).map(i -> {
+                    if (i == 500) {
+                        throw failure;
+                    }
+                    return i;
+                }).count()));
+        assertStopped(source, 500);
+    }
+
+    // the producer reads at most the batches read ahead and stops for good
+    private static void assertStopped(CountingSource source, int consumed) throws InterruptedException {
+        Thread.sleep(300);
+        int read = source.read.get();
+        assertTrue(read <= consumed + MAX_READ_AHEAD, "read " + read);
+        Thread.sleep(300);
+        assertEquals(read, source.read.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneaky(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    // 0, 1, 2, ... up to size, or without end for a negative size
+    private static final class CountingSource implements Iterator<Integer> {
+        final AtomicInteger read = new AtomicInteger();
+        private final int size;
+
+        CountingSource(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size < 0 || read.get() < size;
+        }
+
+        @Override
+        public Integer next() {
+            return read.getAndIncrement();
+        }
+    }
+
+    private static final class FailingSource implements Iterator<Integer> {
+        private final int failAt;
+        private final Throwable failure;
+        private int next;
+
+        FailingSource(int failAt, Throwable failure) {
+            this.failAt = failAt;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public Integer next() {
+            if (next == failAt) {
+                throw BatchedPipelineTest.<RuntimeException>sneaky(failure);
+            }
+            return next++;
+        }
+    }
+}
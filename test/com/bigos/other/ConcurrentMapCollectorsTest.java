@@ -0,0 +1,54 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class ConcurrentMapCollectorsTest {
+
+    @Test
+    void joinsAllValuesOfEveryKeyInParallel() {
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            // few keys, so many threads add to the same container
+            persons.add(new Person(Integer.toString(i), random.nextInt(4)));
+        }
+
+        Map<Integer, String> joined = persons.parallelStream()
+                .collect(ConcurrentMapCollectors.toConcurrentMap(p -> p.age, p -> p.name, ";"));
+        Map<Integer, List<String>> expected = persons.stream()
+                .collect(Collectors.groupingBy(p -> p.age, Collectors.mapping(p -> p.name, Collectors.toList())));
+
+        assertEquals(expected.keySet(), joined.keySet());
+        // the values are joined in no particular order
+        expected.forEach((age, names) -> assertEquals(sorted(names), sorted(Arrays.asList(joined.get(age).split(";")))));
+    }
+
+    @Test
+    void joinsTheValuesOfAKeyWithTheDelimiter() {
+        List<Person> persons = Arrays.asList(new Person("Max", 18), new Person("Peter", 23), new Person("Pamela", 23));
+
+        Map<Integer, String> joined = persons.stream()
+                .collect(ConcurrentMapCollectors.toConcurrentMap(p -> p.age, p -> p.name, " | "));
+
+        assertEquals("Max", joined.get(18));
+        assertEquals("Peter | Pamela", joined.get(23));
+    }
+
+    private static List<String> sorted(List<String> strings) {
+        List<String> copy = new ArrayList<>(strings);
+        copy.sort(null);
+        return copy;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class FooBarIndexTest {
+
+    @Test
+    void barsAreInTheOrderOfFlatMapAfterRandomAdditions() {
+        Random random = new Random(42);
+        List<Foo> foos = new ArrayList<>();
+        for (int f = 0; f < 100; f++) {
+            foos.add(foo(f, random.nextInt(4)));
+        }
+        FooBarIndex index = new FooBarIndex(foos);
+
+        for (int round = 0; round < 200; round++) {
+            // a batch of additions anywhere, then reads
+            for (int i = random.nextInt(50); i > 0; i--) {
+                if (random.nextInt(20) == 0) {
+                    Foo foo = foo(foos.size(), random.nextInt(3));
+                    foos.add(foo);
+                    index.addFoo(foo);
+                } else {
+                    index.addBar(random.nextInt(foos.size()), new Bar("added" + round + "-" + i));
+                }
+            }
+            assertMatches(foos, index);
+        }
+    }
+
+    @Test
+    void streamKeepsTheBarsItWasCreatedWith() {
+        List<Foo> foos = new ArrayList<>();
+        for (int f = 0; f < 10; f++) {
+            foos.add(foo(f, 2));
+        }
+        FooBarIndex index = new FooBarIndex(foos);
+        List<Bar> before = flatMap(foos);
+        Stream<Bar> stream = index.bars();
+
+        index.addBar(0, new Bar("first"));
+        index.addBar(5, new Bar("middle"));
+        assertEquals(flatMap(foos), index.bars().collect(Collectors.toList()));
+
+        assertEquals(before, stream.collect(Collectors.toList()));
+    }
+
+    @Test
+    void barCountDoesNotNeedTheMerge() {
+        List<Foo> foos = new ArrayList<>();
+        foos.add(foo(0, 1));
+        foos.add(foo(1, 1));
+        FooBarIndex index = new FooBarIndex(foos);
+
+        index.addBar(0, new Bar("a"));
+        index.addBar(0, new Bar("b"));
+
+        assertEquals(4, index.barCount());
+        assertEquals(flatMap(foos), index.bars().collect(Collectors.toList()));
+        assertEquals(0, index.parentIndexOf(2));
+        assertEquals(1, index.parentIndexOf(3));
+    }
+
+    private static void assertMatches(List<Foo> foos, FooBarIndex index) {
+        List<Bar> expected = flatMap(foos);
+        assertEquals(expected.size(), index.barCount());
+        assertEquals(expected, index.bars(true).collect(Collectors.toList()));
+        int barIndex = 0;
+        for (int f = 0; f < foos.size(); f++) {
+            assertEquals(foos.get(f).bars, index.barsOf(f).collect(Collectors.toList()));
+            for (int i = 0; i < foos.get(f).bars.size(); i++, barIndex++) {
+                assertEquals(f, index.parentIndexOf(barIndex));
+                assertSame(expected.get(barIndex), index.bar(barIndex));
+            }
+        }
+    }
+
+    private static List<Bar> flatMap(List<Foo> foos) {
+        return foos.stream().flatMap(f -> f.bars.stream()).collect(Collectors.toList());
+    }
+
+    private static Foo foo(int f, int bars) {
+        Foo foo = new Foo("foo" + f);
+        for (int b = 0; b < bars; b++) {
+            foo.bars.add(new Bar("bar" + f + "-" + b));
+        }
+        return foo;
+    }
+}
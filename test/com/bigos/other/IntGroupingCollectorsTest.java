@@ -0,0 +1,113 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class IntGroupingCollectorsTest {
+
+    private static List<Person> persons;
+
+    @BeforeAll
+    static void persons() {
+        Random random = new Random(42);
+        persons = new ArrayList<>();
+        for (int i = 0; i < 500_000; i++) {
+            // negative keys and thousands of groups, so the hash maps rehash; the name is the encounter index
+            persons.add(new Person(Integer.toString(i), random.nextInt(10_000) - 5_000));
+        }
+    }
+
+    @Test
+    void countingByIntIsGroupingByCounting() {
+        assertEquals(persons.stream().collect(Collectors.groupingBy(p -> p.age, Collectors.counting())),
+                persons.parallelStream().collect(IntGroupingCollectors.countingByInt(p -> p.age)));
+    }
+
+    @Test
+    void summingByIntIsGroupingBySummingLong() {
+        assertEquals(persons.stream().collect(Collectors.groupingBy(p -> p.age, Collectors.summingLong(p -> p.name.length()))),
+                persons.parallelStream().collect(IntGroupingCollectors.summingByInt(p -> p.age, p -> p.name.length())));
+    }
+
+    @Test
+    void groupingByIntKeepsTheEncounterOrderWithinEveryGroup() {
+        Map<Integer, List<Person>> expected = persons.stream().collect(Collectors.groupingBy(p -> p.age));
+        Map<Integer, List<Person>> sequential = persons.stream().collect(IntGroupingCollectors.groupingByInt(p -> p.age));
+        Map<Integer, List<Person>> parallel = persons.parallelStream().collect(IntGroupingCollectors.groupingByInt(p -> p.age));
+
+        // the lists hold the same Person instances in the same order
+        assertEquals(expected, sequential);
+        assertEquals(expected, parallel);
+    }
+
+    @Test
+    void groupingByIntOfAFewHotKeys() {
+        // groups much bigger than a chunk
+        List<Person> hot = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            hot.add(new Person(Integer.toString(i), i % 3));
+        }
+
+        assertEquals(hot.stream().collect(Collectors.groupingBy(p -> p.age)),
+                hot.parallelStream().collect(IntGroupingCollectors.groupingByInt(p -> p.age)));
+    }
+
+    @Test
+    void extremeKeys() {
+        int[] keys = {0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        List<Person> extreme = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            extreme.add(new Person(Integer.toString(i), keys[i % keys.length]));
+        }
+
+        assertEquals(extreme.stream().collect(Collectors.groupingBy(p -> p.age, Collectors.counting())),
+                extreme.parallelStream().collect(IntGroupingCollectors.countingByInt(p -> p.age)));
+        assertEquals(extreme.stream().collect(Collectors.groupingBy(p -> p.age)),
+                extreme.parallelStream().collect(IntGroupingCollectors.groupingByInt(p -> p.age)));
+    }
+
+    @Test
+    void countingByIntRangeIsGroupingByCounting() {
+        List<Person> ages = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            ages.add(new Person("p", random.nextInt(100)));
+        }
+
+        assertEquals(ages.stream().collect(Collectors.groupingBy(p -> p.age, Collectors.counting())),
+                ages.parallelStream().collect(IntGroupingCollectors.countingByIntRange(p -> p.age, 0, 99)));
+    }
+
+    @Test
+    void countingByIntRangeRejectsKeysOutsideOfTheRange() {
+        List<Person> ages = Arrays.asList(new Person("a", 0), new Person("b", 100));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ages.stream().collect(IntGroupingCollectors.countingByIntRange(p -> p.age, 0, 99)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ages.stream().collect(IntGroupingCollectors.countingByIntRange(p -> p.age, 1, 100)));
+        assertThrows(IllegalArgumentException.class, () -> IntGroupingCollectors.countingByIntRange(p -> 0, 5, 4));
+    }
+
+    @Test
+    void emptyStreamGivesEmptyMaps() {
+        List<Person> none = new ArrayList<>();
+
+        assertEquals(0, none.parallelStream().collect(IntGroupingCollectors.countingByInt(p -> p.age)).size());
+        assertEquals(0, none.parallelStream().collect(IntGroupingCollectors.groupingByInt(p -> p.age)).size());
+        assertEquals(0, none.parallelStream().collect(IntGroupingCollectors.countingByIntRange(p -> p.age, 0, 9)).size());
+    }
+}
@@ -0,0 +1,177 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class IntQuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.001, 0.01, 0.1, 0.25, 0.333, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void quantilesBelowTheExactLimitAreExact() {
+        Random random = new Random(42);
+        int[] values = random.ints(100_000, -IntQuantileSketch.EXACT_LIMIT + 1, IntQuantileSketch.EXACT_LIMIT)
+                .toArray();
+        IntQuantileSketch sketch = sketch(values);
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (double q : QUANTILES) {
+            assertEquals(exact(sorted, q), sketch.quantile(q), "quantile " + q);
+        }
+        for (int i = 1; i <= 1000; i++) {
+            double q = i / 1000.0;
+            assertEquals(exact(sorted, q), sketch.quantile(q), "quantile " + q);
+        }
+        assertEquals(sorted[0], sketch.min());
+        assertEquals(sorted[sorted.length - 1], sketch.max());
+
+        IntQuantileSketch ages = sketch(new int[]{18, 23, 23, 12, 40});
+        assertEquals(23, ages.median());
+        assertEquals(12, ages.quantile(0));
+        assertEquals(18, ages.quantile(0.4));
+        assertEquals(40, ages.quantile(1));
+    }
+
+    @Test
+    void bucketsCoverEveryMagnitudeOnce() {
+        long limit = 1L << 31;
+        assertEquals(0, IntQuantileSketch.bucket(0));
+        for (long magnitude = 0; magnitude < 1 << 20; magnitude++) {
+            assertInBucket(magnitude);
+        }
+        for (int bit = 10; bit <= 31; bit++) {
+            for (long magnitude : new long[]{(1L << bit) - 1, 1L << bit, (1L << bit) + 1, (3L << bit) >> 1}) {
+                if (magnitude <= limit) {
+                    assertInBucket(magnitude);
+                }
+            }
+        }
+        // consecutive buckets are adjacent
+        for (int bucket = 0; bucket < IntQuantileSketch.bucket(limit); bucket++) {
+            assertEquals(IntQuantileSketch.upperBound(bucket) + 1, IntQuantileSketch.lowerBound(bucket + 1));
+        }
+    }
+
+    @Test
+    void largeAndNegativeValuesAreWithinTheRelativeErrorBound() {
+        Random random = new Random(7);
+        int[][] inputs = {
+                random.ints(200_000).toArray(),
+                random.ints(200_000, Integer.MIN_VALUE, -1_000_000).toArray(),
+                random.ints(200_000, 1_000, 5_000_000).toArray(),
+                IntStream.concat(random.ints(100_000, -100, 100), random.ints(1000, 1 << 30, Integer.MAX_VALUE))
+                        .toArray(),
+                {Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, 0, -1, 1},
+        };
+        for (int[] values : inputs) {
+            IntQuantileSketch sketch = sketch(values);
+            int[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i <= 1000; i++) {
+                double q = i / 1000.0;
+                long exact = exact(sorted, q);
+                long estimate = sketch.quantile(q);
+                assertTrue(Math.abs(estimate - exact) <= Math.abs(exact) * 2.0 / IntQuantileSketch.EXACT_LIMIT,
+                        "quantile " + q + ": " + estimate + ", exact " + exact);
+                // the estimate has the sign of the exact value
+                assertTrue(exact == 0 ? estimate == 0 : Long.signum(estimate) == Long.signum(exact));
+            }
+            assertEquals(sorted[0], sketch.min());
+            assertEquals(sorted[sorted.length - 1], sketch.max());
+        }
+    }
+
+    @Test
+    void resultDoesNotDependOnHowSketchesAreMerged() {
+        Random random = new Random(3);
+        int[] values = IntStream.concat(random.ints(300_000, -5000, 5000), random.ints(30_000)).toArray();
+        IntQuantileSketch whole = sketch(values);
+
+        // chunks merged left to right, right to left and pairwise
+        IntQuantileSketch[] chunks = new IntQuantileSketch[37];
+        for (int i = 0; i < chunks.length; i++) {
+            int from = values.length * i / chunks.length;
+            int to = values.length * (i + 1) / chunks.length;
+            chunks[i] = sketch(Arrays.copyOfRange(values, from, to));
+        }
+        IntQuantileSketch leftToRight = new IntQuantileSketch();
+        for (IntQuantileSketch chunk : chunks) {
+            leftToRight.combine(copy(chunk));
+        }
+        IntQuantileSketch rightToLeft = new IntQuantileSketch();
+        for (int i = chunks.length - 1; i >= 0; i--) {
+            rightToLeft = copy(chunks[i]).combine(rightToLeft);
+        }
+        IntQuantileSketch pairwise = pairwise(chunks, 0, chunks.length);
+        IntQuantileSketch parallel = Arrays.stream(values).boxed().parallel()
+                .collect(IntQuantileSketch.sketching(Integer::intValue));
+
+        for (IntQuantileSketch merged : new IntQuantileSketch[]{leftToRight, rightToLeft, pairwise, parallel}) {
+            assertEquals(whole.count(), merged.count());
+            assertEquals(whole.min(), merged.min());
+            assertEquals(whole.max(), merged.max());
+            for (int i = 0; i <= 1000; i++) {
+                assertEquals(whole.quantile(i / 1000.0), merged.quantile(i / 1000.0));
+            }
+            assertEquals(whole.toString(), merged.toString());
+        }
+    }
+
+    @Test
+    void rejectsEmptySketchesAndInvalidQuantiles() {
+        IntQuantileSketch empty = new IntQuantileSketch();
+        assertThrows(IllegalStateException.class, empty::median);
+        assertThrows(IllegalStateException.class, empty::min);
+        assertEquals("IntQuantileSketch{count=0}", empty.toString());
+
+        IntQuantileSketch sketch = sketch(new int[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.1));
+        assertEquals(2, sketch.combine(new IntQuantileSketch()).median());
+    }
+
+    private static void assertInBucket(long magnitude) {
+        int bucket = IntQuantileSketch.bucket(magnitude);
+        long lower = IntQuantileSketch.lowerBound(bucket);
+        long upper = IntQuantileSketch.upperBound(bucket);
+        assertTrue(lower <= magnitude && magnitude <= upper, magnitude + " not in [" + lower + ", " + upper + "]");
+        assertTrue(upper - lower + 1 <= Math.max(1, lower * 2 / IntQuantileSketch.EXACT_LIMIT),
+                "bucket [" + lower + ", " + upper + "] too wide");
+    }
+
+    // nearest rank, as in the class comment
+    private static int exact(int[] sorted, double q) {
+        return sorted[(int) Math.max(Math.ceil(q * sorted.length), 1) - 1];
+    }
+
+    private static IntQuantileSketch sketch(int[] values) {
+        IntQuantileSketch sketch = new IntQuantileSketch();
+        for (int value : values) {
+            sketch.accept(value);
+        }
+        return sketch;
+    }
+
+    private static IntQuantileSketch copy(IntQuantileSketch sketch) {
+        return new IntQuantileSketch().combine(sketch);
+    }
+
+    private static IntQuantileSketch pairwise(IntQuantileSketch[] chunks, int from, int to) {
+        if (to - from == 1) {
+            return copy(chunks[from]);
+        }
+        int middle = (from + to) >>> 1;
+        return pairwise(chunks, from, middle).combine(pairwise(chunks, middle, to));
+    }
+}
@@ -0,0 +1,175 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class NameDictionaryTest {
+
+    @Test
+    void internsEveryNameOnceInOrder() {
+        NameDictionary dictionary = new NameDictionary();
+
+        assertEquals(0, dictionary.intern("Max"));
+        assertEquals(1, dictionary.intern("Peter"));
+        assertEquals(0, dictionary.intern("Max"));
+        assertEquals(2, dictionary.intern(""));
+        byte[] peter = "xPeterx".getBytes(StandardCharsets.UTF_8);
+        assertEquals(1, dictionary.intern(peter, 1, 5));
+
+        assertEquals(3, dictionary.size());
+        assertEquals(1, dictionary.idOf("Peter"));
+        assertEquals(-1, dictionary.idOf("Pamela"));
+        assertEquals("Peter", dictionary.name(1));
+        assertEquals("", dictionary.name(2));
+        assertEquals(8, dictionary.byteSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.name(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.name(-1));
+    }
+
+    @Test
+    void findsAllNamesAfterRehashing() {
+        NameDictionary dictionary = new NameDictionary();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            names.add("name" + i);
+        }
+        // equal String hash codes, the table has to compare the bytes
+        names.addAll(Arrays.asList("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"));
+
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, dictionary.intern(names.get(i)));
+        }
+        assertEquals(names.size(), dictionary.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, dictionary.idOf(names.get(i)));
+            assertEquals(i, dictionary.intern(names.get(i)));
+            assertEquals(names.get(i), dictionary.name(i));
+        }
+        assertEquals(names.size(), dictionary.size());
+    }
+
+    @Test
+    void growsTheBufferForLongNames() {
+        NameDictionary dictionary = new NameDictionary();
+        List<String> names = new ArrayList<>();
+        int bytes = 0;
+        for (int i = 0; i < 50; i++) {
+            // longer than the initial buffer (4096 bytes) together, and the first one alone
+            char[] chars = new char[i == 0 ? 5000 : 100 + i * 10];
+            Arrays.fill(chars, (char) ('a' + i % 26));
+            String name = i + new String(chars);
+            names.add(name);
+            bytes += name.length();
+            assertEquals(i, dictionary.intern(name));
+        }
+
+        assertEquals(bytes, dictionary.byteSize());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(names.get(i), dictionary.name(i));
+            assertEquals(names.get(i).length(), dictionary.byteLength(i));
+            assertEquals(i, dictionary.idOf(names.get(i)));
+        }
+    }
+
+    @Test
+    void nonAsciiNames() {
+        NameDictionary dictionary = new NameDictionary();
+        List<String> names = Arrays.asList("Émile", "Zoë", "Łukasz", "Jürgen", "李雷", "\uD83D\uDE00 smile", "Emile");
+
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, dictionary.intern(names.get(i)));
+        }
+        for (int i = 0; i < names.size(); i++) {
+            byte[] encoded = names.get(i).getBytes(StandardCharsets.UTF_8);
+            assertEquals(i, dictionary.intern(encoded, 0, encoded.length));
+            assertEquals(i, dictionary.idOf(names.get(i)));
+            assertEquals(names.get(i), dictionary.name(i));
+            assertEquals(encoded.length, dictionary.byteLength(i));
+        }
+        assertTrue(dictionary.startsWith(0, "É"));
+        assertFalse(dictionary.startsWith(6, "É"));
+        assertTrue(dictionary.startsWith(4, "李"));
+        IntPredicate startsWithE = dictionary.prefix("E");
+        assertEquals(Arrays.asList(6), IntStream.range(0, dictionary.size()).filter(startsWithE).boxed()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void upperCasesOncePerId() {
+        NameDictionary dictionary = new NameDictionary();
+        int peter = dictionary.intern("Peter");
+        int max = dictionary.intern("MAX");
+        int strasse = dictionary.intern("Straße");
+        int emile = dictionary.intern("émile");
+
+        int upperPeter = dictionary.toUpperCase(peter);
+        assertEquals("PETER", dictionary.name(upperPeter));
+        assertEquals(upperPeter, dictionary.toUpperCase(peter));
+        assertEquals(upperPeter, dictionary.toUpperCase(upperPeter));
+        assertEquals(upperPeter, dictionary.idOf("PETER"));
+
+        // upper case already, nothing interned
+        int size = dictionary.size();
+        assertEquals(max, dictionary.toUpperCase(max));
+        assertEquals(size, dictionary.size());
+
+        assertEquals("Straße".toUpperCase(Locale.ROOT), dictionary.name(dictionary.toUpperCase(strasse)));
+        assertEquals("ÉMILE", dictionary.name(dictionary.toUpperCase(emile)));
+        assertEquals(dictionary.toUpperCase(emile), dictionary.toUpperCase(dictionary.toUpperCase(emile)));
+        assertEquals(size + 2, dictionary.size());
+    }
+
+    @Test
+    void comparesInCodePointOrder() {
+        NameDictionary dictionary = new NameDictionary();
+        List<String> names = Arrays.asList("Peter", "Pamela", "", "P", "Max", "max", "Émile", "Emile", "Zoë", "Zoe",
+                "Zo", "李雷", "\uFFFD", "Mäx");
+        names.forEach(dictionary::intern);
+
+        List<String> byDictionary = IntStream.range(0, dictionary.size()).boxed()
+                .sorted(dictionary::compare)
+                .map(dictionary::name)
+                .collect(Collectors.toList());
+        List<String> byString = new ArrayList<>(names);
+        byString.sort(null);
+        assertEquals(byString, byDictionary);
+
+        int peter = dictionary.idOf("Peter");
+        assertEquals(0, dictionary.compare(peter, peter));
+        assertTrue(dictionary.compare(dictionary.idOf("P"), peter) < 0);
+        assertTrue(dictionary.compare(peter, dictionary.idOf("P")) > 0);
+
+        // outside the BMP: code point order, where String.compareTo compares the surrogate chars
+        int smile = dictionary.intern("\uD83D\uDE00");
+        int last = dictionary.intern("\uFFFF");
+        assertTrue(dictionary.compare(smile, last) > 0);
+        assertTrue("\uD83D\uDE00".compareTo("\uFFFF") < 0);
+    }
+
+    @Test
+    void decodesANameOnce() {
+        NameDictionary dictionary = new NameDictionary();
+        int id = dictionary.intern(new String("Pamela".toCharArray()));
+
+        String name = dictionary.name(id);
+        assertEquals("Pamela", name);
+        assertSame(name, dictionary.name(id));
+    }
+}
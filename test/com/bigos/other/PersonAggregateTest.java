@@ -0,0 +1,96 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class PersonAggregateTest {
+
+    private static final int SIZE = 1_000_000;
+
+    private static List<Person> persons;
+    private static long expectedAgeSum;
+    private static String expectedNames;
+
+    @BeforeAll
+    static void shuffledPersons() {
+        persons = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            // distinct names, so a combiner joining splits in the wrong order changes the result
+            persons.add(new Person(Integer.toString(i, 36), i % 100));
+        }
+        Collections.shuffle(persons, new Random(42));
+
+        StringBuilder names = new StringBuilder();
+        for (Person person : persons) {
+            expectedAgeSum += person.age;
+            names.append(person.name);
+        }
+        expectedNames = names.toString();
+    }
+
+    @Test
+    void sequentialAggregateIsTheSumOfAgesAndTheNamesInEncounterOrder() {
+        PersonAggregate aggregate = persons.stream().collect(PersonAggregate.aggregating());
+
+        assertEquals(expectedAgeSum, aggregate.ageSum());
+        assertEquals(expectedNames, aggregate.names());
+    }
+
+    @Test
+    void parallelAggregateIsTheSameAsSequential() {
+        PersonAggregate sequential = persons.stream().collect(PersonAggregate.aggregating());
+        PersonAggregate parallel = persons.parallelStream().collect(PersonAggregate.aggregating());
+
+        assertEquals(sequential.ageSum(), parallel.ageSum());
+        assertEquals(sequential.names(), parallel.names());
+    }
+
+    @Test
+    void parallelAggregateIsTheSameInRepeatedRuns() {
+        for (int run = 0; run < 5; run++) {
+            PersonAggregate parallel = persons.parallelStream().collect(PersonAggregate.aggregating());
+
+            assertEquals(expectedAgeSum, parallel.ageSum());
+            assertEquals(expectedNames, parallel.names());
+        }
+    }
+
+    @Test
+    void summingGivesTheSamePersonSequentiallyAndInParallel() {
+        List<Person> few = persons.subList(0, 10_000);
+
+        Person sequential = few.stream().collect(PersonAggregate.summing());
+        Person parallel = few.parallelStream().collect(PersonAggregate.summing());
+
+        assertEquals(sequential.age, parallel.age);
+        assertEquals(sequential.name, parallel.name);
+    }
+
+    @Test
+    void emptyStreamGivesAnEmptyAggregate() {
+        PersonAggregate aggregate = new ArrayList<Person>().parallelStream().collect(PersonAggregate.aggregating());
+
+        assertEquals(0, aggregate.ageSum());
+        assertEquals("", aggregate.names());
+    }
+
+    @Test
+    void toPersonFailsWhenTheSumOfAgesDoesNotFitIntoAnInt() {
+        PersonAggregate aggregate = new PersonAggregate();
+        aggregate.accept(new Person("a", Integer.MAX_VALUE));
+        aggregate.accept(new Person("b", 1));
+
+        assertThrows(ArithmeticException.class, aggregate::toPerson);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class PersonSourceTest {
+
+    private static final String[] NAMES = {"Max", "Paul", "Żaneta", "Łukasz", "Anna", "Zoë", "Dave"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parallelStreamOverSmallSegmentsGivesTheRecordsInOrder() throws IOException {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + i;
+            int age = random.nextInt(200) - 50;
+            expected.add(name + "=" + age);
+            csv.append(name).append(',').append(age).append(random.nextBoolean() ? "\n" : "\r\n");
+            if (random.nextInt(50) == 0) {
+                csv.append(random.nextBoolean() ? "\n" : "\r\n");
+            }
+        }
+        Path file = write(csv.toString());
+
+        // segments of 4KB, and segments big enough to be split by records
+        for (int segmentSize : new int[]{4096, 1 << 20, PersonSource.MAX_SEGMENT_SIZE}) {
+            try (PersonSource source = PersonSource.open(file, segmentSize)) {
+                assertEquals(expected, records(source, false), "sequential, segments of " + segmentSize);
+                assertEquals(expected, records(source, true), "parallel, segments of " + segmentSize);
+            }
+        }
+    }
+
+    @Test
+    void crlfAndEmptyLinesAreSkipped() throws IOException {
+        Path file = write("\r\nMax,14\r\n\r\n\nPaul,24\n\nAnna,-3");
+
+        try (PersonSource source = PersonSource.open(file)) {
+            assertEquals(Arrays.asList("Max=14", "Paul=24", "Anna=-3"), records(source, false));
+        }
+    }
+
+    @Test
+    void emptyFileGivesAnEmptyStream() throws IOException {
+        try (PersonSource source = PersonSource.open(write(""))) {
+            assertEquals(0, source.stream(true).count());
+        }
+    }
+
+    @Test
+    void malformedRecordsFail() throws IOException {
+        assertMalformed("Max,14\nPaul\n", "missing ','");
+        assertMalformed("Max,14\nPaul", "missing ','");
+        assertMalformed("Max,1x4\n", "invalid age");
+        assertMalformed("Max,\n", "missing age");
+        assertMalformed("Max,-\r\n", "missing age");
+        assertMalformed("Max,99999999999\n", "age out of range");
+    }
+
+    @Test
+    void recordLongerThanASegmentFails() throws IOException {
+        Path file = write("Max,14\n" + new String(new char[100]).replace('\0', 'a') + ",1\n");
+
+        IOException e = assertThrows(IOException.class, () -> PersonSource.open(file, 64));
+        assertTrue(e.getMessage().contains("record longer than 64 bytes"), e.getMessage());
+    }
+
+    private void assertMalformed(String csv, String message) throws IOException {
+        try (PersonSource source = PersonSource.open(write(csv))) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> source.stream().count());
+            assertTrue(e.getMessage().startsWith(message), e.getMessage());
+        }
+    }
+
+    private static List<String> records(PersonSource source, boolean parallel) {
+        return source.stream(parallel).map(p -> p.name + "=" + p.age).collect(Collectors.toList());
+    }
+
+    private Path write(String csv) throws IOException {
+        return Files.write(Files.createTempFile(directory, "persons", ".csv"), csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class PersonTableTest {
+
+    @Test
+    void nullNameIsADistinctName() {
+        PersonTable table = new PersonTable();
+        table.add("Peter", 23);
+        table.add(null, 12);
+        table.add("Pamela", 23);
+        table.add(null, 40);
+
+        assertNull(table.name(1));
+        assertNull(table.person(3).name);
+        assertEquals(40, table.person(3).age);
+        assertEquals(3, table.distinctNames());
+        assertEquals(Arrays.asList(1, 3), table.rowsWhereName(Objects::isNull).boxed().collect(Collectors.toList()));
+        assertEquals(Arrays.asList(0, 2), table.rowsWhereName(Objects::nonNull).boxed().collect(Collectors.toList()));
+        assertEquals(Arrays.asList(0, 2), table.rowsWhereNameStartsWith("P").boxed().collect(Collectors.toList()));
+        // a null name starts with nothing, not even ""
+        assertEquals(Arrays.asList(0, 2), table.rowsWhereNameStartsWith("").boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void rowsWithTheSameNameShareTheString() {
+        PersonTable table = new PersonTable();
+        table.add(new String("Max".toCharArray()), 18);
+        table.add(new String("Max".toCharArray()), 19);
+
+        assertEquals(1, table.distinctNames());
+        assertEquals("Max", table.name(0));
+        assertSame(table.name(0), table.name(1));
+        assertSame(table.name(0), table.person(1).name);
+    }
+}
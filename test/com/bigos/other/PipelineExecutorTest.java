@@ -0,0 +1,41 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class PipelineExecutorTest {
+
+    @Test
+    void workersHaveDistinctNames() {
+        int parallelism = 4;
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        // every task waits for the others, so all the workers have to be started
+        CountDownLatch allStarted = new CountDownLatch(parallelism);
+        try (PipelineExecutor executor = new PipelineExecutor("test", parallelism)) {
+            executor.run(() -> IntStream.range(0, parallelism).parallel().forEach(i -> {
+                names.add(Thread.currentThread().getName());
+                allStarted.countDown();
+                try {
+                    allStarted.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        assertEquals(parallelism, names.size(), names.toString());
+        for (String name : names) {
+            assertTrue(name.startsWith("test-worker-"), name);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class PrimitiveSortTest {
+
+    @Test
+    void radixSortIntsLikeArraysSort() {
+        Random random = new Random(42);
+        assertRadixSorted(random.ints(10_000).toArray());
+        assertRadixSorted(random.ints(10_000, -100, 100).toArray());
+        assertRadixSorted(random.ints(10_000, 0, 100).toArray());
+        assertRadixSorted(random.ints(10_000, -1 << 20, -1 << 10).toArray());
+        assertRadixSorted(new int[]{Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, 1, Integer.MIN_VALUE,
+                Integer.MAX_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1});
+        assertRadixSorted(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE});
+        assertRadixSorted(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE});
+
+        int[] extremes = random.ints(10_000).toArray();
+        for (int i = 0; i < extremes.length; i += 7) {
+            extremes[i] = i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        assertRadixSorted(extremes);
+    }
+
+    @Test
+    void radixSortLongsLikeArraysSort() {
+        Random random = new Random(42);
+        assertRadixSorted(random.longs(10_000).toArray());
+        assertRadixSorted(random.longs(10_000, -100, 100).toArray());
+        assertRadixSorted(random.longs(10_000, Integer.MIN_VALUE, Integer.MAX_VALUE).toArray());
+        assertRadixSorted(new long[]{Long.MAX_VALUE, 0, Long.MIN_VALUE, -1, 1, Long.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE + 1, Long.MAX_VALUE - 1});
+        assertRadixSorted(new long[]{Long.MIN_VALUE, Long.MAX_VALUE});
+        assertRadixSorted(new long[]{Long.MAX_VALUE, Long.MIN_VALUE});
+
+        long[] extremes = random.longs(10_000).toArray();
+        for (int i = 0; i < extremes.length; i += 7) {
+            extremes[i] = i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        assertRadixSorted(extremes);
+    }
+
+    @Test
+    void radixSortAllEqualAndTinyArrays() {
+        for (int value : new int[]{0, -5, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            int[] ints = new int[1000];
+            Arrays.fill(ints, value);
+            assertRadixSorted(ints);
+            long[] longs = new long[1000];
+            Arrays.fill(longs, value == Integer.MIN_VALUE ? Long.MIN_VALUE : value);
+            assertRadixSorted(longs);
+        }
+        assertRadixSorted(new int[0]);
+        assertRadixSorted(new int[]{3});
+        assertRadixSorted(new int[]{3, -3});
+        assertRadixSorted(new long[0]);
+        assertRadixSorted(new long[]{3});
+        assertRadixSorted(new long[]{3, -3});
+    }
+
+    @Test
+    void sortPicksAnyAlgorithmWithTheSameResult() {
+        Random random = new Random(7);
+        for (int size : new int[]{0, 1, 10, 127, 128, 300, 1000, 100_000}) {
+            int[] ints = random.ints(size).toArray();
+            int[] expected = ints.clone();
+            Arrays.sort(expected);
+            PrimitiveSort.sort(ints);
+            assertArrayEquals(expected, ints);
+
+            int[] ages = random.ints(size, 0, 100).toArray();
+            int[] expectedAges = ages.clone();
+            Arrays.sort(expectedAges);
+            PrimitiveSort.sort(ages);
+            assertArrayEquals(expectedAges, ages);
+
+            long[] longs = random.longs(size).toArray();
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs);
+            PrimitiveSort.sort(longs);
+            assertArrayEquals(expectedLongs, longs);
+        }
+        int[] values = {5, -1, Integer.MIN_VALUE, 5, 0};
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 0, 5, 5}, PrimitiveSort.sortedList(values).toArray());
+        assertArrayEquals(new int[]{5, -1, Integer.MIN_VALUE, 5, 0}, values);
+    }
+
+    private static void assertRadixSorted(int[] a) {
+        int[] expected = a.clone();
+        Arrays.sort(expected);
+        PrimitiveSort.radixSort(a);
+        assertArrayEquals(expected, a);
+    }
+
+    private static void assertRadixSorted(long[] a) {
+        long[] expected = a.clone();
+        Arrays.sort(expected);
+        PrimitiveSort.radixSort(a);
+        assertArrayEquals(expected, a);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class RecordReaderTest {
+
+    private static final String[] NAMES = {"Max", "Paul", "Żaneta", "Łukasz", "", "Zoë"};
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private final List<String> persons = new ArrayList<>();
+    private final List<String> foos = new ArrayList<>();
+
+    @BeforeEach
+    void writeRecords() throws IOException {
+        Random random = new Random(42);
+        file = directory.resolve("records.bin");
+        try (RecordWriter writer = RecordWriter.create(file)) {
+            for (int i = 0; i < 5000; i++) {
+                // persons and foos interleaved, so both streams skip the other records
+                if (random.nextInt(3) == 0) {
+                    Foo foo = new Foo(NAMES[random.nextInt(NAMES.length)] + i);
+                    for (int b = random.nextInt(12); b > 0; b--) {
+                        foo.bars.add(new Bar("bar" + b));
+                    }
+                    writer.writeFoo(foo);
+                    foos.add(describe(foo));
+                } else {
+                    Person person = new Person(NAMES[random.nextInt(NAMES.length)] + i,
+                            random.nextInt() >> random.nextInt(32));
+                    writer.writePerson(person);
+                    persons.add(describe(person));
+                }
+            }
+        }
+    }
+
+    @Test
+    void personsRoundTrip() throws IOException {
+        assertEquals(persons, RecordReader.map(file).persons().map(RecordReaderTest::describe)
+                .collect(Collectors.toList()));
+        assertEquals(persons, RecordReader.map(file).persons().parallel().map(RecordReaderTest::describe)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void parallelAgeSumIsTheSequentialOne() throws IOException {
+        long sequential = RecordReader.map(file).persons().mapToLong(p -> p.age).sum();
+        long parallel = RecordReader.map(file).persons().parallel().mapToLong(p -> p.age).sum();
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void foosRoundTrip() throws IOException {
+        assertEquals(foos, RecordReader.map(file).foos().map(RecordReaderTest::describe)
+                .collect(Collectors.toList()));
+        assertEquals(foos, RecordReader.map(file).foos().parallel().map(RecordReaderTest::describe)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void viewsReadTheRecordsInPlace() throws IOException {
+        RecordReader reader = RecordReader.map(file);
+        List<String> viewed = new ArrayList<>();
+        while (reader.next()) {
+            if (reader.isPerson()) {
+                viewed.add(reader.person().name() + "=" + reader.person().age());
+            } else {
+                assertTrue(reader.isFoo());
+            }
+        }
+
+        assertEquals(persons, viewed);
+        assertFalse(reader.next());
+    }
+
+    private static String describe(Person person) {
+        return person.name + "=" + person.age;
+    }
+
+    private static String describe(Foo foo) {
+        return foo.name + foo.bars.stream().map(b -> b.name).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class ReplayableStreamTest {
+
+    private static final List<Integer> NUMBERS = IntStream.range(0, 5000).boxed().collect(Collectors.toList());
+
+    @Test
+    void replaysFromMemoryAndEvaluatesTheSourceOnce() {
+        AtomicInteger evaluations = new AtomicInteger();
+        ReplayableStream<Integer> replayable = ReplayableStream.of(() -> {
+            evaluations.incrementAndGet();
+            return NUMBERS.stream().filter(i -> i % 3 == 0);
+        });
+        Stream<Integer> notStarted = replayable.get();
+        assertEquals(0, evaluations.get());
+
+        assertTrue(notStarted.anyMatch(i -> i == 3));
+        assertEquals(NUMBERS.stream().filter(i -> i % 3 == 0).collect(Collectors.toList()),
+                replayable.get().collect(Collectors.toList()));
+        assertEquals(1667, replayable.get().parallel().count());
+        assertEquals(1667, replayable.size());
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    void replaysAfterSpillingToDisk() throws IOException {
+        AtomicInteger evaluations = new AtomicInteger();
+        int filesBefore = spillFiles();
+        try (ReplayableStream<Integer> replayable = ReplayableStream.spilling(() -> {
+            evaluations.incrementAndGet();
+            return NUMBERS.stream();
+        }, 100)) {
+            assertEquals(NUMBERS, replayable.get().collect(Collectors.toList()));
+            assertEquals(filesBefore + 1, spillFiles());
+            assertEquals(NUMBERS, replayable.get().collect(Collectors.toList()));
+            // not consumed to the end
+            try (Stream<Integer> first = replayable.get()) {
+                assertEquals(NUMBERS.subList(0, 200), first.limit(200).collect(Collectors.toList()));
+            }
+            assertEquals(NUMBERS.size(), replayable.size());
+        }
+        assertEquals(1, evaluations.get());
+        assertEquals(filesBefore, spillFiles());
+    }
+
+    @Test
+    void failingSourceLeavesNoSpillFileAndIsEvaluatedAgain() throws IOException {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        IllegalStateException failure = new IllegalStateException("source failed");
+        int filesBefore = spillFiles();
+        try (ReplayableStream<Integer> replayable = ReplayableStream.spilling(() -> NUMBERS.stream().peek(i -> {
+            if (i == 1000 && fail.get()) {
+                throw failure;
+            }
+        }), 100)) {
+            assertSame(failure, assertThrows(IllegalStateException.class, () -> replayable.get().count()));
+            assertEquals(filesBefore, spillFiles());
+
+            fail.set(false);
+            assertEquals(NUMBERS, replayable.get().collect(Collectors.toList()));
+            assertEquals(NUMBERS.size(), replayable.size());
+        }
+        assertEquals(filesBefore, spillFiles());
+    }
+
+    @Test
+    void spillingBelowTheThresholdWritesNoFile() throws IOException {
+        int filesBefore = spillFiles();
+        try (ReplayableStream<Integer> replayable = ReplayableStream.spilling(NUMBERS::stream, NUMBERS.size())) {
+            assertEquals(NUMBERS, replayable.get().collect(Collectors.toList()));
+            assertEquals(filesBefore, spillFiles());
+        }
+        assertFalse(ReplayableStream.of(Stream::empty).get().findAny().isPresent());
+    }
+
+    private static int spillFiles() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(System.getProperty("java.io.tmpdir")),
+                "replayable-stream*.spill")) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bigos.other;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by bigos on 2026-10-17.
+ */
+class TopKCollectorsTest {
+
+    private static final Comparator<Person> BY_AGE = Comparator.comparingInt(p -> p.age);
+    // no ties: the result is fully determined
+    private static final Comparator<Person> BY_AGE_AND_NAME = BY_AGE.thenComparing(p -> p.name);
+
+    private static final List<Person> PERSONS = persons();
+
+    @Test
+    void sameAsSortedLimitWithoutTies() {
+        for (int k : new int[]{0, 1, 10, 1000, PERSONS.size(), PERSONS.size() + 10}) {
+            assertEquals(PERSONS.stream().sorted(BY_AGE_AND_NAME.reversed()).limit(k).collect(Collectors.toList()),
+                    PERSONS.parallelStream().collect(TopKCollectors.greatest(k, BY_AGE_AND_NAME)), "greatest " + k);
+            assertEquals(PERSONS.stream().sorted(BY_AGE_AND_NAME).limit(k).collect(Collectors.toList()),
+                    PERSONS.parallelStream().collect(TopKCollectors.least(k, BY_AGE_AND_NAME)), "least " + k);
+        }
+    }
+
+    @Test
+    void sameAgesAsSortedLimitWithTies() {
+        // 100 000 persons with 100 ages, every k cuts through a run of equal ages
+        for (int k : new int[]{1, 7, 1500, 12_345}) {
+            List<Person> greatest = PERSONS.parallelStream().collect(TopKCollectors.greatest(k, BY_AGE));
+            assertEquals(ages(PERSONS.stream().sorted(BY_AGE.reversed()).limit(k).collect(Collectors.toList())),
+                    ages(greatest), "greatest " + k);
+            assertDistinctSourceElements(greatest);
+
+            List<Person> least = PERSONS.parallelStream().collect(TopKCollectors.least(k, BY_AGE));
+            assertEquals(ages(PERSONS.stream().sorted(BY_AGE).limit(k).collect(Collectors.toList())),
+                    ages(least), "least " + k);
+            assertDistinctSourceElements(least);
+        }
+    }
+
+    @Test
+    void rejectsNegativeK() {
+        assertThrows(IllegalArgumentException.class, () -> TopKCollectors.greatest(-1, BY_AGE));
+        assertThrows(IllegalArgumentException.class, () -> TopKCollectors.least(-1, BY_AGE));
+    }
+
+    private static List<Integer> ages(List<Person> persons) {
+        return persons.stream().map(p -> p.age).collect(Collectors.toList());
+    }
+
+    // every element is one of the source, none is returned twice
+    private static void assertDistinctSourceElements(List<Person> result) {
+        Set<Person> source = Collections.newSetFromMap(new IdentityHashMap<>());
+        source.addAll(PERSONS);
+        Set<Person> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Person person : result) {
+            assertTrue(source.contains(person));
+            assertTrue(seen.add(person));
+        }
+    }
+
+    private static List<Person> persons() {
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            persons.add(new Person("p" + i, random.nextInt(100)));
+        }
+        return persons;
+    }
+}